@@ -5,29 +5,28 @@
 
 package com.microsoft.azure.maven.function;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.PrettyPrinter;
-import com.fasterxml.jackson.core.util.DefaultIndenter;
-import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.microsoft.azure.maven.model.DeploymentResource;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.AzureFunctionPackager;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionMethod;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionProject;
+import com.microsoft.azure.toolkit.lib.appservice.function.impl.DefaultFunctionProject;
+import com.microsoft.azure.toolkit.lib.appservice.utils.FileStager;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.legacy.function.bindings.Binding;
 import com.microsoft.azure.toolkit.lib.legacy.function.bindings.BindingEnum;
 import com.microsoft.azure.toolkit.lib.legacy.function.configurations.FunctionConfiguration;
-import com.microsoft.azure.toolkit.lib.legacy.function.handlers.AnnotationHandler;
-import com.microsoft.azure.toolkit.lib.legacy.function.handlers.AnnotationHandlerImpl;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.CommandHandler;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.CommandHandlerImpl;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreToolsHandler;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreToolsHandlerImpl;
 import com.microsoft.azure.toolkit.lib.common.logging.Log;
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.input.BOMInputStream;
@@ -42,15 +41,14 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.lang.reflect.Method;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -85,11 +83,13 @@ public class PackageMojo extends AbstractFunctionMojo {
     public static final String SKIP_INSTALL_EXTENSIONS_HTTP = "Skip install Function extension for HTTP Trigger Functions";
     public static final String INSTALL_EXTENSIONS_FINISH = "Function extension installation done.";
     public static final String BUILD_SUCCESS = "Successfully built Azure Functions.";
+    public static final String STEP_COSTS = "Time cost of each step: %s";
 
     public static final String FUNCTION_JSON = "function.json";
     public static final String HOST_JSON = "host.json";
     public static final String LOCAL_SETTINGS_JSON = "local.settings.json";
     public static final String EXTENSION_BUNDLE = "extensionBundle";
+    public static final String FUNCTION_INDEX = "azure-functions-index.json";
     private static final String DEFAULT_LOCAL_SETTINGS_JSON = "{ \"IsEncrypted\": false, \"Values\": " +
             "{ \"FUNCTIONS_WORKER_RUNTIME\": \"java\" } }";
     private static final String DEFAULT_HOST_JSON = "{\"version\":\"2.0\",\"extensionBundle\":" +
@@ -110,119 +110,136 @@ public class PackageMojo extends AbstractFunctionMojo {
     @Parameter(property = "functions.skipInstallExtensions", defaultValue = "false")
     protected boolean skipInstallExtensions;
 
+    /**
+     * Boolean flag to search functions incrementally, only changed classes and dependencies will be scanned
+     * @since 1.16.0
+     */
+    @Parameter(property = "functions.incrementalBuild", defaultValue = "false")
+    protected boolean incrementalBuild;
+
     @Override
     protected void doExecute() throws AzureExecutionException {
         validateAppName();
 
         promptCompileInfo();
 
-        final AnnotationHandler annotationHandler = getAnnotationHandler();
+        try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.PACKAGING)) {
+            final Map<String, Long> costs = new LinkedHashMap<>();
+            long start = System.currentTimeMillis();
+            final FunctionProject functionProject = getFunctionProject();
 
-        final Set<Method> methods;
-        try {
-            methods = findAnnotatedMethods(annotationHandler);
-        } catch (MalformedURLException e) {
-            throw new AzureExecutionException("Invalid URL when resolving class path:" + e.getMessage(), e);
-        }
+            final List<FunctionMethod> methods = findAnnotatedMethods(functionProject);
+            start = recordCost(costs, "search", start);
 
-        if (methods.size() == 0) {
-            Log.info(NO_FUNCTIONS);
-            return;
-        }
+            if (methods.size() == 0) {
+                Log.info(NO_FUNCTIONS);
+                return;
+            }
 
-        final Map<String, FunctionConfiguration> configMap = getFunctionConfigurations(annotationHandler, methods);
+            final Map<String, FunctionConfiguration> configMap = getFunctionConfigurations(functionProject, methods);
+            start = recordCost(costs, "generate", start);
 
-        trackFunctionProperties(configMap);
-        validateFunctionConfigurations(configMap);
+            trackFunctionProperties(configMap);
+            validateFunctionConfigurations(configMap);
+            start = recordCost(costs, "validate", start);
 
-        final ObjectWriter objectWriter = getObjectWriter();
+            final ObjectWriter objectWriter = getObjectWriter();
 
-        try {
-            copyHostJson();
+            try {
+                copyHostJson();
 
-            copyLocalSettingsJson();
+                copyLocalSettingsJson();
 
-            writeFunctionJsonFiles(objectWriter, configMap);
+                writeFunctionJsonFiles(objectWriter, configMap);
+                start = recordCost(costs, "save", start);
 
-            copyJarsToStageDirectory();
-        } catch (IOException e) {
-            throw new AzureExecutionException("Cannot perform IO operations due to error:" + e.getMessage(), e);
-        }
+                copyJarsToStageDirectory();
+                start = recordCost(costs, "copy-jars", start);
+            } catch (IOException e) {
+                throw new AzureExecutionException("Cannot perform IO operations due to error:" + e.getMessage(), e);
+            }
 
-        final CommandHandler commandHandler = new CommandHandlerImpl();
-        final FunctionCoreToolsHandler functionCoreToolsHandler = getFunctionCoreToolsHandler(commandHandler);
-        final Set<BindingEnum> bindingClasses = this.getFunctionBindingEnums(configMap);
+            final CommandHandler commandHandler = new CommandHandlerImpl();
+            final FunctionCoreToolsHandler functionCoreToolsHandler = getFunctionCoreToolsHandler(commandHandler);
+            final Set<BindingEnum> bindingClasses = this.getFunctionBindingEnums(configMap);
 
-        installExtension(functionCoreToolsHandler, bindingClasses);
+            installExtension(functionCoreToolsHandler, bindingClasses);
+            recordCost(costs, "install-extensions", start);
 
-        Log.info(BUILD_SUCCESS);
+            Log.info(String.format(STEP_COSTS, costs.entrySet().stream()
+                .map(cost -> String.format("%s %d ms", cost.getKey(), cost.getValue())).collect(Collectors.joining(", "))));
+            Log.info(BUILD_SUCCESS);
+        }
+    }
+
+    private long recordCost(final Map<String, Long> costs, final String step, final long start) {
+        final long now = System.currentTimeMillis();
+        costs.put(step, now - start);
+        // same property name as the one of executeWithTimeRecorder
+        Optional.ofNullable(telemetryProxy).ifPresent(proxy -> proxy.addDefaultProperty(step + "-cost", String.valueOf(now - start)));
+        return now;
     }
 
     //endregion
 
     //region Process annotations
 
-    protected AnnotationHandler getAnnotationHandler() {
-        return new AnnotationHandlerImpl();
+    /**
+     * @return function project whose functions are found from class files of the project and its dependencies,
+     * incrementally with the function index if {@link #incrementalBuild} is set
+     */
+    protected FunctionProject getFunctionProject() throws AzureExecutionException {
+        final DefaultFunctionProject result = new DefaultFunctionProject();
+        result.setName(getAppName());
+        result.setBaseDirectory(getProject().getBasedir());
+        result.setStagingFolder(new File(getDeploymentStagingDirectoryPath()));
+        result.setClassesOutputDirectory(outputDirectory);
+        result.setArtifactFile(getArtifactFile());
+        result.setDependencies(getRuntimeDependencies());
+        if (incrementalBuild) {
+            result.setFunctionIndexFile(new File(getBuildDirectoryAbsolutePath(), FUNCTION_INDEX));
+        }
+        return result;
     }
 
-    protected Set<Method> findAnnotatedMethods(final AnnotationHandler handler) throws MalformedURLException {
+    protected List<FunctionMethod> findAnnotatedMethods(final FunctionProject functionProject) {
         Log.info("");
         Log.info(SEARCH_FUNCTIONS);
-        Set<Method> functions;
-        try {
-            Log.debug("ClassPath to resolve: " + getTargetClassUrl());
-            final List<URL> dependencyWithTargetClass = getDependencyArtifactUrls();
-            dependencyWithTargetClass.add(getTargetClassUrl());
-            functions = handler.findFunctions(dependencyWithTargetClass);
-        } catch (NoClassDefFoundError e) {
-            // fallback to reflect through artifact url, for shaded project(fat jar)
-            Log.debug("ClassPath to resolve: " + getArtifactUrl());
-            functions = handler.findFunctions(Arrays.asList(getArtifactUrl()));
-        }
+        final List<FunctionMethod> functions = functionProject.findAnnotatedMethods();
         Log.info(functions.size() + FOUND_FUNCTIONS);
         return functions;
     }
 
-    protected URL getArtifactUrl() throws MalformedURLException {
-        return this.getProject().getArtifact().getFile().toURI().toURL();
-    }
-
-    protected URL getTargetClassUrl() throws MalformedURLException {
-        return outputDirectory.toURI().toURL();
-    }
-
     /**
-     * @return URLs for the classpath with compile scope needed jars
+     * @return files of the runtime classpath except the output directory of the project
      */
-    protected List<URL> getDependencyArtifactUrls() {
-        final List<URL> urlList = new ArrayList<>();
+    protected List<File> getRuntimeDependencies() {
         final List<String> runtimeClasspathElements = new ArrayList<>();
         try {
             runtimeClasspathElements.addAll(this.getProject().getRuntimeClasspathElements());
         } catch (DependencyResolutionRequiredException e) {
             Log.debug("Failed to resolve dependencies for compile scope, exception: " + e.getMessage());
         }
-        for (final String element : runtimeClasspathElements) {
-            final File f = new File(element);
-            try {
-                urlList.add(f.toURI().toURL());
-            } catch (MalformedURLException e) {
-                Log.debug("Failed to get URL for file: " + f.toString());
-            }
-        }
-        return urlList;
+        return runtimeClasspathElements.stream()
+            .map(File::new)
+            .filter(file -> !file.getAbsoluteFile().equals(outputDirectory.getAbsoluteFile()))
+            .collect(Collectors.toList());
     }
 
     //endregion
 
     //region Generate function configurations
 
-    protected Map<String, FunctionConfiguration> getFunctionConfigurations(final AnnotationHandler handler,
-                                                                           final Set<Method> methods) throws AzureExecutionException {
+    protected Map<String, FunctionConfiguration> getFunctionConfigurations(final FunctionProject functionProject,
+                                                                           final List<FunctionMethod> methods) throws AzureExecutionException {
         Log.info("");
         Log.info(GENERATE_CONFIG);
-        final Map<String, FunctionConfiguration> configMap = handler.generateConfigurations(methods);
+        final Map<String, FunctionConfiguration> configMap;
+        try {
+            configMap = AzureFunctionPackager.getInstance().generateConfigurationsInner(functionProject, methods);
+        } catch (AzureToolkitRuntimeException e) {
+            throw new AzureExecutionException(e.getMessage(), e);
+        }
         if (configMap.size() == 0) {
             Log.info(GENERATE_SKIP);
         } else {
@@ -248,7 +265,7 @@ public class PackageMojo extends AbstractFunctionMojo {
         if (configMap.size() == 0) {
             Log.info(VALIDATE_SKIP);
         } else {
-            configMap.values().forEach(FunctionConfiguration::validate);
+            AzureFunctionPackager.forEachInParallel(configMap.values(), FunctionConfiguration::validate);
             Log.info(VALIDATE_DONE);
         }
     }
@@ -264,8 +281,16 @@ public class PackageMojo extends AbstractFunctionMojo {
         if (configMap.size() == 0) {
             Log.info(SAVE_SKIP);
         } else {
-            for (final Map.Entry<String, FunctionConfiguration> config : configMap.entrySet()) {
-                writeFunctionJsonFile(objectWriter, config.getKey(), config.getValue());
+            try {
+                AzureFunctionPackager.forEachInParallel(configMap.entrySet(), config -> {
+                    try {
+                        writeFunctionJsonFile(objectWriter, config.getKey(), config.getValue());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
         }
     }
@@ -308,18 +333,16 @@ public class PackageMojo extends AbstractFunctionMojo {
 
     protected void writeObjectToFile(final ObjectWriter objectWriter, final Object object, final File targetFile)
             throws IOException {
-        targetFile.getParentFile().mkdirs();
-        targetFile.createNewFile();
-        objectWriter.writeValue(targetFile, object);
+        final byte[] content = objectWriter.writeValueAsBytes(object);
+        // keep the file untouched if content is not changed, so that it won't be taken as modified in later steps
+        if (targetFile.isFile() && Arrays.equals(content, FileUtils.readFileToByteArray(targetFile))) {
+            return;
+        }
+        FileUtils.writeByteArrayToFile(targetFile, content);
     }
 
     protected ObjectWriter getObjectWriter() {
-        final DefaultPrettyPrinter.Indenter indenter = DefaultIndenter.SYSTEM_LINEFEED_INSTANCE.withLinefeed(StringUtils.LF);
-        final PrettyPrinter prettyPrinter = new DefaultPrettyPrinter().withObjectIndenter(indenter);
-        return new ObjectMapper()
-                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
-                .writer(prettyPrinter);
+        return AzureFunctionPackager.getObjectWriter();
     }
 
     //endregion
@@ -331,15 +354,14 @@ public class PackageMojo extends AbstractFunctionMojo {
         Log.info("");
         Log.info(COPY_JARS + stagingDirectory);
         final File libFolder = Paths.get(stagingDirectory, "lib").toFile();
-        if (libFolder.exists()) {
-            FileUtils.cleanDirectory(libFolder);
-        }
-        for (final Artifact artifact : project.getArtifacts()) {
-            if (!StringUtils.equalsIgnoreCase(artifact.getArtifactId(), "azure-functions-java-library")) {
-                FileUtils.copyFileToDirectory(artifact.getFile(), libFolder);
-            }
-        }
-        FileUtils.copyFileToDirectory(getArtifactFile(), new File(stagingDirectory));
+        final List<File> dependencies = project.getArtifacts().stream()
+            .filter(artifact -> !StringUtils.equalsIgnoreCase(artifact.getArtifactId(), "azure-functions-java-library"))
+            .map(Artifact::getFile)
+            .collect(Collectors.toList());
+        final FileStager stager = new FileStager();
+        final int staged = stager.syncDirectory(dependencies, libFolder);
+        Log.debug(String.format("%d of %d dependencies staged, others are up to date", staged, dependencies.size()));
+        stager.stageFile(getArtifactFile(), new File(stagingDirectory));
         Log.info(COPY_SUCCESS);
     }
 
@@ -5,55 +5,96 @@
 
 package com.microsoft.azure.maven.function;
 
-import com.microsoft.azure.toolkit.lib.legacy.function.handlers.AnnotationHandler;
-import com.microsoft.azure.toolkit.lib.legacy.function.handlers.AnnotationHandlerImpl;
+import com.microsoft.azure.functions.annotation.FunctionName;
+import com.microsoft.azure.functions.annotation.HttpTrigger;
+import com.microsoft.azure.functions.annotation.QueueOutput;
+import com.microsoft.azure.functions.annotation.QueueTrigger;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionMethod;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionProject;
+import com.microsoft.azure.toolkit.lib.appservice.function.impl.DefaultFunctionProject;
+import com.microsoft.azure.toolkit.lib.legacy.function.configurations.FunctionConfiguration;
 import org.codehaus.plexus.util.ReflectionUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNotNull;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PackageMojoTest extends MojoTestBase {
+    private static final String HTTP_TRIGGER_FUNCTION = "HttpTriggerFunction";
+    private static final String QUEUE_TRIGGER_FUNCTION = "QueueTriggerFunction";
+
+    public static class FunctionEntryPoints {
+        @FunctionName(HTTP_TRIGGER_FUNCTION)
+        public String httpTriggerMethod(@HttpTrigger(name = "req") String req) {
+            return "Hello!";
+        }
+
+        @FunctionName(QUEUE_TRIGGER_FUNCTION)
+        public void queueTriggerMethod(@QueueTrigger(name = "in", queueName = "qIn", connection = "conn") String in,
+                                       @QueueOutput(name = "out", queueName = "qOut", connection = "conn") String out) {
+        }
+    }
+
     @Test
     public void doExecute() throws Exception {
         final PackageMojo mojo = getMojoFromPom();
         final PackageMojo mojoSpy = spy(mojo);
-        final Set<Method> methods = new HashSet<>(Arrays.asList(this.getClass().getMethods()));
         ReflectionUtils.setVariableValueInObject(mojoSpy, "finalName", "artifact-0.1.0");
-        doReturn(mock(AnnotationHandler.class)).when(mojoSpy).getAnnotationHandler();
-        doReturn(methods).when(mojoSpy).findAnnotatedMethods(any());
+        doReturn(getFunctionProject()).when(mojoSpy).getFunctionProject();
         doReturn(false).when(mojoSpy).isInstallingExtensionNeeded(any());
         doNothing().when(mojoSpy).copyHostJson();
         doNothing().when(mojoSpy).copyLocalSettingsJson();
         doNothing().when(mojoSpy).promptCompileInfo();
         doNothing().when(mojoSpy).trackFunctionProperties(any());
         doNothing().when(mojoSpy).copyJarsToStageDirectory();
+        doNothing().when(mojoSpy).writeFunctionJsonFile(any(), any(), any());
         mojoSpy.doExecute();
+
+        verify(mojoSpy, times(1)).writeFunctionJsonFile(any(), eq(HTTP_TRIGGER_FUNCTION), any());
+        verify(mojoSpy, times(1)).writeFunctionJsonFile(any(), eq(QUEUE_TRIGGER_FUNCTION), any());
     }
 
     @Test
-    public void getAnnotationHandler() throws Exception {
+    public void findAnnotatedMethods() throws Exception {
         final PackageMojo mojo = getMojoFromPom();
-        final AnnotationHandler handler = mojo.getAnnotationHandler();
+        final List<FunctionMethod> methods = mojo.findAnnotatedMethods(getFunctionProject());
+
+        assertEquals(2, methods.size());
+    }
+
+    @Test
+    public void getFunctionConfigurations() throws Exception {
+        final PackageMojo mojo = getMojoFromPom();
+        ReflectionUtils.setVariableValueInObject(mojo, "finalName", "artifact-0.1.0");
+        final FunctionProject project = getFunctionProject();
+
+        final Map<String, FunctionConfiguration> configMap = mojo.getFunctionConfigurations(project, mojo.findAnnotatedMethods(project));
+        mojo.validateFunctionConfigurations(configMap);
 
-        assertNotNull(handler);
-        assertTrue(handler instanceof AnnotationHandlerImpl);
+        assertEquals(2, configMap.size());
+        verifyFunctionConfiguration(configMap.get(HTTP_TRIGGER_FUNCTION), "httpTriggerMethod", 2);
+        verifyFunctionConfiguration(configMap.get(QUEUE_TRIGGER_FUNCTION), "queueTriggerMethod", 2);
     }
 
     @Test
@@ -77,6 +118,38 @@ public class PackageMojoTest extends MojoTestBase {
         mojoSpy.writeFunctionJsonFile(null, "httpTrigger", null);
     }
 
+    @Test
+    public void writeFunctionJsonFilesWithFailure() throws Exception {
+        final PackageMojo mojo = getMojoFromPom();
+        final PackageMojo mojoSpy = spy(mojo);
+        final Map<String, FunctionConfiguration> configMap = new LinkedHashMap<>();
+        configMap.put(HTTP_TRIGGER_FUNCTION, new FunctionConfiguration());
+        configMap.put(QUEUE_TRIGGER_FUNCTION, new FunctionConfiguration());
+        doNothing().when(mojoSpy).writeFunctionJsonFile(any(), eq(HTTP_TRIGGER_FUNCTION), any());
+        doThrow(new IOException("disk is full")).when(mojoSpy).writeFunctionJsonFile(any(), eq(QUEUE_TRIGGER_FUNCTION), any());
+
+        final IOException exception = assertThrows(IOException.class, () -> mojoSpy.writeFunctionJsonFiles(mojoSpy.getObjectWriter(), configMap));
+        assertEquals("disk is full", exception.getMessage());
+    }
+
+    private static void verifyFunctionConfiguration(final FunctionConfiguration config, final String methodName, final int bindingNum) {
+        assertNotNull(config);
+        assertEquals(FunctionEntryPoints.class.getCanonicalName() + "." + methodName, config.getEntryPoint());
+        assertEquals("../artifact-0.1.0.jar", config.getScriptFile());
+        assertEquals(bindingNum, config.getBindings().size());
+    }
+
+    /**
+     * @return project whose classes are the test classes, i.e. {@link FunctionEntryPoints} are the only functions
+     */
+    private static FunctionProject getFunctionProject() throws Exception {
+        final FunctionProject project = new DefaultFunctionProject();
+        project.setClassesOutputDirectory(new File(PackageMojoTest.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        project.setDependencies(new ArrayList<>());
+        project.setArtifactFile(new File("artifact-0.1.0.jar"));
+        return project;
+    }
+
     private PackageMojo getMojoFromPom() throws Exception {
         final PackageMojo mojo = (PackageMojo) getMojoFromPom("/pom.xml", "package");
         assertNotNull(mojo);
@@ -168,7 +168,7 @@ public abstract class AbstractAppServiceMojo extends AbstractAzureMojo {
         if (appServiceClient == null) {
             try {
                 final Account account = getAzureAccount();
-                final List<Subscription> subscriptions = account.getSubscriptions();
+                final List<Subscription> subscriptions = getCandidateSubscriptions(account);
                 final String targetSubscriptionId = getTargetSubscriptionId(getSubscriptionId(), subscriptions, account.getSelectedSubscriptions());
                 checkSubscription(subscriptions, targetSubscriptionId);
                 com.microsoft.azure.toolkit.lib.Azure.az(AzureAccount.class).account().selectSubscription(Collections.singletonList(targetSubscriptionId));
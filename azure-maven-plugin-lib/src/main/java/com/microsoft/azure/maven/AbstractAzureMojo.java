@@ -10,7 +10,8 @@ import com.azure.core.management.AzureEnvironment;
 import com.azure.identity.DeviceCodeInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.microsoft.applicationinsights.internal.channel.common.ApacheSenderFactory;
+import com.microsoft.azure.maven.auth.AccountProber;
+import com.microsoft.azure.maven.auth.LoginSessionCache;
 import com.microsoft.azure.maven.exception.MavenDecryptException;
 import com.microsoft.azure.maven.model.MavenAuthConfiguration;
 import com.microsoft.azure.maven.model.SubscriptionOption;
@@ -24,16 +25,19 @@ import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
 import com.microsoft.azure.toolkit.lib.auth.AzureCloud;
 import com.microsoft.azure.toolkit.lib.auth.core.devicecode.DeviceCodeAccount;
 import com.microsoft.azure.toolkit.lib.auth.exception.AzureLoginException;
-import com.microsoft.azure.toolkit.lib.auth.exception.AzureToolkitAuthenticationException;
 import com.microsoft.azure.toolkit.lib.auth.exception.LoginFailureException;
 import com.microsoft.azure.toolkit.lib.auth.model.AuthType;
 import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import com.microsoft.azure.toolkit.lib.common.http.HttpTransport;
 import com.microsoft.azure.toolkit.lib.common.logging.Log;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperationTracer;
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport;
 import com.microsoft.azure.toolkit.lib.common.proxy.ProxyInfo;
 import com.microsoft.azure.toolkit.lib.common.proxy.ProxyManager;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskContext;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemeter;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
@@ -61,9 +65,9 @@ import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.crypto.SettingsDecrypter;
 import org.apache.maven.shared.filtering.MavenResourcesFiltering;
 import org.beryx.textio.TextTerminal;
-import reactor.core.publisher.Mono;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -72,14 +76,17 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -110,6 +117,8 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
 
     private static final String AZURE_ENVIRONMENT = "azureEnvironment";
     private static final String PROXY = "proxy";
+    private static final Duration TELEMETRY_FLUSH_TIMEOUT = Duration.ofSeconds(2);
+    private static final String TIMING_REPORT_DIRECTORY = "azure-timings";
 
     //region Properties
 
@@ -333,7 +342,9 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
 
             SystemPropertyUtils.injectCommandLineParameter("auth", mavenAuthConfiguration, MavenAuthConfiguration.class);
             Azure.az().config().setUserAgent(getUserAgent());
-            azureAccount = login(MavenAuthUtils.buildAuthConfiguration(session, settingsDecrypter, mavenAuthConfiguration));
+            try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.LOGIN)) {
+                azureAccount = login(MavenAuthUtils.buildAuthConfiguration(session, settingsDecrypter, mavenAuthConfiguration));
+            }
         }
         return azureAccount;
     }
@@ -341,7 +352,7 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
     @SneakyThrows
     protected void selectSubscription() {
         final Account account = Azure.az(AzureAccount.class).account();
-        final List<Subscription> subscriptions = account.getSubscriptions();
+        final List<Subscription> subscriptions = getCandidateSubscriptions(account);
         final String targetSubscriptionId = getTargetSubscriptionId(getSubscriptionId(), subscriptions, account.getSelectedSubscriptions());
         checkSubscription(subscriptions, targetSubscriptionId);
         account.selectSubscription(Collections.singletonList(targetSubscriptionId));
@@ -353,7 +364,7 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
     protected Account login(@Nonnull com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration auth) {
         promptAzureEnvironment(auth.getEnvironment());
         MavenAuthUtils.disableIdentityLogs();
-        accountLogin(auth);
+        accountLogin(auth, getSubscriptionId(), Optional.ofNullable(project).map(MavenProject::getBasedir).orElse(null));
         final Account account = Azure.az(AzureAccount.class).account();
         final boolean isInteractiveLogin = account.getAuthType() == AuthType.OAUTH2 || account.getAuthType() == AuthType.DEVICE_CODE;
         final AzureEnvironment env = account.getEnvironment();
@@ -368,27 +379,41 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
         return account;
     }
 
-    private static Account accountLogin(@Nonnull com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration auth) {
+    private static Account accountLogin(@Nonnull com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration auth, @Nullable String subscriptionId,
+                                        @Nullable File projectDir) {
 
         if (auth.getEnvironment() != null) {
             Azure.az(AzureCloud.class).set(auth.getEnvironment());
         }
+        final LoginSessionCache sessions = new LoginSessionCache(auth);
+        final Account restored = sessions.restore();
+        if (restored != null) {
+            return restored;
+        }
+        final Account account = doAccountLogin(auth, subscriptionId, projectDir);
+        sessions.save(account);
+        return account;
+    }
+
+    private static Account doAccountLogin(@Nonnull com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration auth, @Nullable String subscriptionId,
+                                          @Nullable File projectDir) {
         // handle null type
         if (auth.getType() == null || auth.getType() == AuthType.AUTO) {
             if (StringUtils.isAllBlank(auth.getCertificate(), auth.getCertificatePassword(), auth.getKey())) {
-                // not service principal configuration, will list accounts and try them one by one
-                final Account account = findFirstAvailableAccount().block();
+                // not service principal configuration, will probe accounts concurrently and take the first available by priority
+                final List<Account> accounts = Azure.az(AzureAccount.class).accounts();
+                final Account account = new AccountProber(projectDir).findFirstAvailableAccount(accounts).block();
                 // prompt if oauth or device code
                 promptForOAuthOrDeviceCodeLogin(account.getAuthType());
-                return handleDeviceCodeAccount(Azure.az(AzureAccount.class).loginAsync(account, false).block());
+                return handleDeviceCodeAccount(Azure.az(AzureAccount.class).loginAsync(account, false, subscriptionId).block());
             } else {
                 // user specify SP related configurations
-                return doServicePrincipalLogin(auth);
+                return doServicePrincipalLogin(auth, subscriptionId);
             }
         } else {
             // user specifies the auth type explicitly
             promptForOAuthOrDeviceCodeLogin(auth.getType());
-            return handleDeviceCodeAccount(Azure.az(AzureAccount.class).loginAsync(auth, false).block());
+            return handleDeviceCodeAccount(Azure.az(AzureAccount.class).loginAsync(auth, false, subscriptionId).block());
         }
     }
 
@@ -414,41 +439,17 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
         }
     }
 
-    private static Mono<Account> findFirstAvailableAccount() {
-        final List<Account> accounts = Azure.az(AzureAccount.class).accounts();
-        if (accounts.isEmpty()) {
-            return Mono.error(new AzureToolkitAuthenticationException("there are no subscriptions available."));
-        }
-        Mono<Account> current = checkAccountAvailable(accounts.get(0));
-        for (int i = 1; i < accounts.size(); i++) {
-            final Account ac = accounts.get(i);
-            current = current.onErrorResume(e -> checkAccountAvailable(ac));
-        }
-        return current;
-    }
-
-    private static Account doServicePrincipalLogin(com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration auth) {
+    private static Account doServicePrincipalLogin(com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration auth, @Nullable String subscriptionId) {
         auth.setType(AuthType.SERVICE_PRINCIPAL);
-        return Azure.az(AzureAccount.class).login(auth).account();
-    }
-
-    private static Mono<Account> checkAccountAvailable(Account account) {
-        return account.checkAvailable().map(avail -> {
-            if (avail) {
-                return account;
-            }
-            throw new AzureToolkitAuthenticationException(String.format("auth type: %s is not available", account.getAuthType()));
-        });
+        return Azure.az(AzureAccount.class).loginAsync(auth, false, subscriptionId).flatMap(Account::continueLogin).block();
     }
 
     protected static void printCredentialDescription(Account account, boolean skipType) {
         if (skipType) {
-            if (CollectionUtils.isNotEmpty(account.getSubscriptions())) {
-                final List<Subscription> selectedSubscriptions = account.getSelectedSubscriptions();
-                if (selectedSubscriptions != null && selectedSubscriptions.size() == 1) {
-                    System.out.printf("Default subscription: %s(%s)%n", TextUtils.cyan(selectedSubscriptions.get(0).getName()),
-                            TextUtils.cyan(selectedSubscriptions.get(0).getId()));
-                }
+            final List<Subscription> selectedSubscriptions = account.getSelectedSubscriptions();
+            if (selectedSubscriptions != null && selectedSubscriptions.size() == 1) {
+                System.out.printf("Default subscription: %s(%s)%n", TextUtils.cyan(selectedSubscriptions.get(0).getName()),
+                        TextUtils.cyan(selectedSubscriptions.get(0).getId()));
             }
 
             if (StringUtils.isNotEmpty(account.getEntity().getEmail())) {
@@ -493,6 +494,24 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
 
     @Override
     public void execute() throws MojoExecutionException {
+        // run the goal in a task context of its own, which its timing report is bound to, so that goals running in parallel
+        // (e.g. mvn -T) in the same jvm are timed separately
+        final Callable<Void> goal = AzureTaskContext.wrap(() -> {
+            this.executeGoal();
+            return null;
+        });
+        try {
+            goal.call();
+        } catch (final MojoExecutionException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private void executeGoal() throws MojoExecutionException {
+        final TimingReport timingReport = TimingReport.start(this.getClass().getSimpleName());
+        boolean skipped = false;
         try {
             MavenActionManager.register();
             AzureTaskManager.register(new MavenAzureTaskManager());
@@ -518,6 +537,7 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
 
             if (isSkipMojo()) {
                 Log.info("Skip execution.");
+                skipped = true;
                 onSkipped();
             } else {
                 beforeMojoExecution();
@@ -529,18 +549,36 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
         } catch (Exception e) {
             onMojoError(e);
         } finally {
-            // When maven goal executes too quick, The HTTPClient of AI SDK may not fully initialize and will step
-            // into endless loop when close, we need to call it in main thread.
-            // Refer here for detail codes: https://github.com/Microsoft/ApplicationInsights-Java/blob/master/core/src
-            // /main/java/com/microsoft/applicationinsights/internal/channel/common/ApacheSender43.java#L103
-            Optional.ofNullable(TextIOUtils.getTextTerminal()).ifPresent(TextTerminal::dispose);
-            try {
-                // Sleep to wait ai sdk flush telemetries
-                Thread.sleep(2 * 1000);
-            } catch (InterruptedException e) {
-                // swallow this exception
+            timingReport.finish();
+            if (!skipped) {
+                writeTimingReport(timingReport);
             }
-            ApacheSenderFactory.INSTANCE.create().close();
+            Optional.ofNullable(TextIOUtils.getTextTerminal()).ifPresent(TextTerminal::dispose);
+            // hand telemetries of this goal over to ai sdk before returning, as the jvm may outlive the build (e.g. mvnd or
+            // maven embedded in IDE), the shutdown hook only drains what is left behind. the shared http client of ai sdk
+            // is no longer closed after each goal since later goals in the same jvm still use it
+            Optional.ofNullable(telemetryProxy).ifPresent(proxy -> proxy.flush(TELEMETRY_FLUSH_TIMEOUT));
+            AzureOperationTracer.export(); // only if enabled by -Dazure.toolkit.operation.trace=<file>
+        }
+    }
+
+    private void writeTimingReport(@Nonnull TimingReport report) {
+        Log.info(report.toSummary());
+        if (Objects.isNull(buildDirectory)) {
+            return;
+        }
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("plugin", getPluginName());
+        properties.put("pluginVersion", getPluginVersion());
+        final HttpTransport.Stats http = HttpTransport.getStats();
+        properties.put("httpConnectionsOpened", String.valueOf(http.getOpened()));
+        properties.put("httpConnectionsReused", String.valueOf(http.getAcquired()));
+        final File file = Paths.get(getBuildDirectoryAbsolutePath(), TIMING_REPORT_DIRECTORY, report.getName() + ".json").toFile();
+        try {
+            report.write(file, properties);
+        } catch (IOException e) {
+            // catch exceptions here to avoid blocking mojo execution.
+            Log.debug(String.format("Failed to write timing report to %s: %s", file, e.getMessage()));
         }
     }
 
@@ -703,6 +741,21 @@ public abstract class AbstractAzureMojo extends AbstractMojo {
         return targetSubscriptionId;
     }
 
+    /**
+     * @return the configured subscription if it's found, which is resolved on login without listing all subscriptions, otherwise all subscriptions.
+     */
+    protected List<Subscription> getCandidateSubscriptions(@Nonnull Account account) {
+        final String configured = getSubscriptionId();
+        if (StringUtils.isNotBlank(configured)) {
+            try {
+                return Collections.singletonList(account.getSubscription(configured));
+            } catch (final IllegalArgumentException e) {
+                // not found in all subscriptions, return them for error reporting
+            }
+        }
+        return account.getSubscriptions();
+    }
+
     protected static void checkSubscription(List<Subscription> subscriptions, String targetSubscriptionId) throws AzureLoginException {
         if (StringUtils.isEmpty(targetSubscriptionId)) {
             return;
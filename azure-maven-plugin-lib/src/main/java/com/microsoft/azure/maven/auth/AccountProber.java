@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven.auth;
+
+import com.google.common.hash.Hashing;
+import com.microsoft.azure.toolkit.lib.auth.Account;
+import com.microsoft.azure.toolkit.lib.auth.exception.AzureToolkitAuthenticationException;
+import com.microsoft.azure.toolkit.lib.auth.model.AuthType;
+import com.microsoft.azure.toolkit.lib.common.logging.Log;
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * probes availability of candidate accounts for AUTO login concurrently, and takes the one with highest priority among the available.
+ * the auth type of the account taken is remembered per machine and project, so that it takes the highest priority next time and the
+ * login doesn't wait for (maybe slow) probes of other accounts. interactive accounts (e.g. OAUTH2) are never remembered, since they are
+ * always available and would shadow other accounts (e.g. azure cli) signed in later.
+ */
+public class AccountProber {
+    private static final String PREFERENCE_PATH = Paths.get(System.getProperty("user.home"), ".azure", "mavenplugins-auth.properties").toString();
+    private static final String PREFERENCE_KEY_PREFIX = "auto.auth.type.";
+    private static final Duration DEFAULT_PROBE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Set<AuthType> INTERACTIVE_AUTH_TYPES = Collections.unmodifiableSet(EnumSet.of(AuthType.OAUTH2, AuthType.DEVICE_CODE));
+
+    @Nonnull
+    private final String preferenceKey;
+    @Nonnull
+    private final Duration timeout;
+
+    public AccountProber(@Nullable File projectDir) {
+        this(projectDir, DEFAULT_PROBE_TIMEOUT);
+    }
+
+    public AccountProber(@Nullable File projectDir, @Nonnull Duration timeout) {
+        final String project = Objects.isNull(projectDir) ? "" : projectDir.getAbsolutePath();
+        this.preferenceKey = PREFERENCE_KEY_PREFIX + Hashing.sha256().hashString(project, StandardCharsets.UTF_8).toString().substring(0, 16);
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param accounts candidates in order of priority
+     */
+    @Nonnull
+    public Mono<Account> findFirstAvailableAccount(@Nonnull List<Account> accounts) {
+        if (accounts.isEmpty()) {
+            return Mono.error(new AzureToolkitAuthenticationException("there are no subscriptions available."));
+        }
+        final AuthType preferred = this.loadPreferredAuthType();
+        final List<Account> candidates = accounts.stream()
+            .sorted(Comparator.comparing(a -> a.getAuthType() != preferred)) // stable, so the rest keeps its order
+            .collect(Collectors.toList());
+        // all probes are started at once, the result waits only for probes of higher priority than the first available one.
+        final List<CompletableFuture<Account>> probes = candidates.stream().map(this::probe).collect(Collectors.toList());
+        Mono<Account> current = Mono.fromFuture(probes.get(0));
+        for (int i = 1; i < probes.size(); i++) {
+            final CompletableFuture<Account> probe = probes.get(i);
+            current = current.onErrorResume(e -> Mono.fromFuture(probe));
+        }
+        return current.doOnSuccess(account -> {
+            probes.forEach(p -> p.cancel(true));
+            final AuthType taken = INTERACTIVE_AUTH_TYPES.contains(account.getAuthType()) ? null : account.getAuthType();
+            if (taken != preferred) {
+                this.savePreferredAuthType(taken);
+            }
+        });
+    }
+
+    @Nonnull
+    private CompletableFuture<Account> probe(@Nonnull Account account) {
+        return account.checkAvailable().map(avail -> {
+            if (avail) {
+                return account;
+            }
+            throw new AzureToolkitAuthenticationException(String.format("auth type: %s is not available", account.getAuthType()));
+        }).subscribeOn(Schedulers.boundedElastic()).timeout(this.timeout).toFuture();
+    }
+
+    @Nullable
+    private AuthType loadPreferredAuthType() {
+        final File file = new File(PREFERENCE_PATH);
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream input = new FileInputStream(file)) {
+            final Properties prop = new Properties();
+            prop.load(input);
+            final String type = prop.getProperty(this.preferenceKey);
+            final AuthType preferred = StringUtils.isBlank(type) ? null : AuthType.valueOf(type);
+            return INTERACTIVE_AUTH_TYPES.contains(preferred) ? null : preferred;
+        } catch (Exception e) {
+            // catch exceptions here to avoid blocking login.
+            Log.debug(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param type null to forget the preferred auth type, e.g. if it's no longer available
+     */
+    private synchronized void savePreferredAuthType(@Nullable AuthType type) {
+        final File file = new File(PREFERENCE_PATH);
+        try {
+            final Properties prop = new Properties();
+            if (file.exists()) {
+                try (InputStream input = new FileInputStream(file)) {
+                    prop.load(input);
+                }
+            } else {
+                file.getParentFile().mkdirs();
+            }
+            if (Objects.isNull(type)) {
+                prop.remove(this.preferenceKey);
+            } else {
+                prop.setProperty(this.preferenceKey, type.name());
+            }
+            try (OutputStream output = new FileOutputStream(file)) {
+                prop.store(output, "Preferred auth types of AUTO login for projects");
+            }
+        } catch (Exception e) {
+            // catch exceptions here to avoid blocking login.
+            Log.debug(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven.auth;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.auth.Account;
+import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
+import com.microsoft.azure.toolkit.lib.auth.model.AccountEntity;
+import com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration;
+import com.microsoft.azure.toolkit.lib.auth.model.AuthType;
+import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
+import com.microsoft.azure.toolkit.lib.common.logging.Log;
+import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * caches login sessions keyed by digest of auth configuration, so that goals of the same (reactor) build or later builds don't login and
+ * discover tenants/subscriptions again. sessions are shared in process for all auth types, and persisted to {@code ~/.azure/mavenplugins-sessions}
+ * for azure cli and service principal (whose credentials can be created without user interaction), a restored session is revalidated by a full
+ * login in background, which updates or evicts the persisted one for later builds. the signed-in user and default subscription of azure cli
+ * are part of the digest for auth types that may resolve to azure cli, so that {@code az login} or {@code az account set} takes effect
+ * right away. time to live (of both shared and persisted sessions) is configured by system property {@value #TTL_PROPERTY} in seconds,
+ * {@code 0} to disable persistence and expiration.
+ */
+public class LoginSessionCache {
+    public static final String TTL_PROPERTY = "azure.toolkit.auth.session.ttl";
+    private static final long DEFAULT_TTL = TimeUnit.HOURS.toSeconds(1);
+    private static final Path SESSIONS_DIR = Paths.get(System.getProperty("user.home"), ".azure", "mavenplugins-sessions");
+    private static final List<AuthType> PERSISTABLE_TYPES = Arrays.asList(AuthType.AZURE_CLI, AuthType.SERVICE_PRINCIPAL);
+    private static final String CLI_CONFIG_DIR_ENV_KEY = "AZURE_CONFIG_DIR";
+    private static final String CLI_PROFILE = "azureProfile.json";
+    private static final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<String, Pair<Account, Long>> accounts = new ConcurrentHashMap<>(); // account and when it was logged in
+    private static final Set<String> revalidated = ConcurrentHashMap.newKeySet();
+
+    @Nonnull
+    private final AuthConfiguration auth;
+    @Nonnull
+    private final String digest;
+    private final long ttl = NumberUtils.toLong(System.getProperty(TTL_PROPERTY), DEFAULT_TTL);
+
+    public LoginSessionCache(@Nonnull AuthConfiguration auth) {
+        this.auth = copy(auth, auth.getType());
+        final String environment = Optional.ofNullable(auth.getEnvironment()).map(AzureEnvironmentUtils::azureEnvironmentToString).orElse(null);
+        final String cliProfile = Arrays.asList(null, AuthType.AUTO, AuthType.AZURE_CLI).contains(auth.getType()) ? getAzureCliProfile() : null;
+        final String config = Stream.of(auth.getType(), environment, auth.getClient(), auth.getTenant(), auth.getKey(), auth.getCertificate(),
+            auth.getCertificatePassword(), cliProfile).map(Objects::toString).collect(Collectors.joining("\n"));
+        this.digest = Hashing.sha256().hashString(config, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * @return the account logged in with the same auth configuration in this process, or restored from a persisted session, {@code null} if none.
+     */
+    @Nullable
+    public Account restore() {
+        final Pair<Account, Long> shared = accounts.get(this.digest);
+        if (Objects.nonNull(shared) && !this.isExpired(shared.getRight())) {
+            return shared.getLeft().continueLogin().block();
+        } else if (Objects.nonNull(shared)) {
+            accounts.remove(this.digest, shared);
+        }
+        final Session session = this.load();
+        if (Objects.isNull(session)) {
+            return null;
+        }
+        try {
+            final Account restored = Azure.az(AzureAccount.class).restoreAsync(copy(this.auth, session.getType()), session.toEntity())
+                .flatMap(Account::continueLogin).block();
+            accounts.put(this.digest, Pair.of(restored, session.getSavedAt()));
+            this.revalidate(session.getType());
+            return restored;
+        } catch (final Exception e) {
+            Log.debug(String.format("Failed to restore login session: %s", e.getMessage()));
+            this.evict();
+            return null;
+        }
+    }
+
+    public void save(@Nonnull Account account) {
+        accounts.put(this.digest, Pair.of(account, System.currentTimeMillis()));
+        if (this.ttl > 0 && PERSISTABLE_TYPES.contains(account.getAuthType())) {
+            this.persist(Session.fromEntity(account.getEntity()));
+        }
+    }
+
+    private void revalidate(@Nonnull AuthType type) {
+        if (!revalidated.add(this.digest)) {
+            return;
+        }
+        // login with a new account instance, which is not set as the current one, the result only affects later builds.
+        Azure.az(AzureAccount.class).loginAsync(copy(this.auth, type), false)
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(account -> this.persist(Session.fromEntity(account.getEntity())), e -> this.evict());
+    }
+
+    @Nullable
+    private Session load() {
+        final File file = this.getFile();
+        if (this.ttl <= 0 || !file.isFile()) {
+            return null;
+        }
+        try {
+            final Session session = mapper.readValue(file, Session.class);
+            return this.isExpired(session.getSavedAt()) || !PERSISTABLE_TYPES.contains(session.getType()) ? null : session;
+        } catch (final Exception e) {
+            // catch exceptions here to avoid blocking login.
+            Log.debug(String.format("Failed to load login session from %s: %s", file, e.getMessage()));
+            return null;
+        }
+    }
+
+    private void persist(@Nonnull Session session) {
+        final File file = this.getFile();
+        try {
+            Files.createDirectories(SESSIONS_DIR);
+            // write to a temp file and move, so that concurrent builds never read a partial session
+            final Path temp = Files.createTempFile(SESSIONS_DIR, this.digest, ".tmp");
+            mapper.writeValue(temp.toFile(), session);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final Exception e) {
+            // catch exceptions here to avoid blocking login.
+            Log.debug(String.format("Failed to save login session to %s: %s", file, e.getMessage()));
+        }
+    }
+
+    private void evict() {
+        try {
+            Files.deleteIfExists(this.getFile().toPath());
+        } catch (final Exception e) {
+            Log.debug(String.format("Failed to evict login session %s: %s", this.getFile(), e.getMessage()));
+        }
+    }
+
+    private boolean isExpired(long savedAt) {
+        return this.ttl > 0 && System.currentTimeMillis() - savedAt > TimeUnit.SECONDS.toMillis(this.ttl);
+    }
+
+    /**
+     * @return signed-in user and default subscription of azure cli, which are read from its profile instead of by {@code az account show}
+     * to keep restoring fast, {@code null} if azure cli is not signed in.
+     */
+    @Nullable
+    private static String getAzureCliProfile() {
+        final File file = Paths.get(StringUtils.firstNonBlank(System.getenv(CLI_CONFIG_DIR_ENV_KEY),
+            Paths.get(System.getProperty("user.home"), ".azure").toString()), CLI_PROFILE).toFile();
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            // azure cli writes the profile with a bom
+            final String content = StringUtils.removeStart(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), "\uFEFF");
+            for (final JsonNode subscription : mapper.readTree(content).path("subscriptions")) {
+                if (subscription.path("isDefault").asBoolean()) {
+                    return String.join("|", subscription.path("user").path("name").asText(), subscription.path("id").asText());
+                }
+            }
+        } catch (final Exception e) {
+            // catch exceptions here to avoid blocking login.
+            Log.debug(String.format("Failed to read azure cli profile %s: %s", file, e.getMessage()));
+        }
+        return null;
+    }
+
+    @Nonnull
+    private File getFile() {
+        return SESSIONS_DIR.resolve(this.digest + ".json").toFile();
+    }
+
+    @Nonnull
+    private static AuthConfiguration copy(@Nonnull AuthConfiguration auth, @Nullable AuthType type) {
+        final AuthConfiguration result = new AuthConfiguration();
+        result.setType(type);
+        result.setEnvironment(auth.getEnvironment());
+        result.setClient(auth.getClient());
+        result.setTenant(auth.getTenant());
+        result.setKey(auth.getKey());
+        result.setCertificate(auth.getCertificate());
+        result.setCertificatePassword(auth.getCertificatePassword());
+        return result;
+    }
+
+    /**
+     * persisted part of {@link AccountEntity}, which contains no secrets.
+     */
+    @Getter
+    @Setter
+    static class Session {
+        private long savedAt;
+        private AuthType type;
+        private String environment;
+        private String clientId;
+        private String email;
+        private List<String> tenantIds;
+        private List<Subscription> subscriptions;
+        private List<String> selectedSubscriptionIds;
+        private boolean partialSubscriptions;
+
+        @Nonnull
+        static Session fromEntity(@Nonnull AccountEntity entity) {
+            final Session session = new Session();
+            session.setSavedAt(System.currentTimeMillis());
+            session.setType(entity.getType());
+            session.setEnvironment(AzureEnvironmentUtils.azureEnvironmentToString(entity.getEnvironment()));
+            session.setClientId(entity.getClientId());
+            session.setEmail(entity.getEmail());
+            session.setTenantIds(entity.getTenantIds());
+            session.setSubscriptions(entity.getSubscriptions());
+            session.setSelectedSubscriptionIds(entity.getSelectedSubscriptionIds());
+            session.setPartialSubscriptions(entity.isPartialSubscriptions());
+            return session;
+        }
+
+        @Nonnull
+        AccountEntity toEntity() {
+            final AccountEntity entity = new AccountEntity();
+            entity.setType(this.type);
+            entity.setEnvironment(AzureEnvironmentUtils.stringToAzureEnvironment(this.environment));
+            entity.setClientId(this.clientId);
+            entity.setEmail(this.email);
+            entity.setTenantIds(this.tenantIds);
+            entity.setSubscriptions(Optional.ofNullable(this.subscriptions).orElse(Collections.emptyList()));
+            entity.setSelectedSubscriptionIds(this.selectedSubscriptionIds);
+            entity.setPartialSubscriptions(this.partialSubscriptions);
+            return entity;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.microsoft.azure.maven.prompt.DefaultPrompter;
 import com.microsoft.azure.maven.prompt.IPrompter;
 import com.microsoft.azure.maven.utils.MavenConfigUtils;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.utils.TextUtils;
 import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudApp;
@@ -79,8 +80,10 @@ public class DeployMojo extends AbstractMojoBase {
         }
         final SpringCloudDeployment deployment = task.execute();
         if (!noWait) {
-            if (!deployment.waitUntilReady(GET_STATUS_TIMEOUT)) {
-                log.warn(GET_DEPLOYMENT_STATUS_TIMEOUT);
+            try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.POLLING)) {
+                if (!deployment.waitUntilReady(GET_STATUS_TIMEOUT)) {
+                    log.warn(GET_DEPLOYMENT_STATUS_TIMEOUT);
+                }
             }
         }
         printStatus(deployment);
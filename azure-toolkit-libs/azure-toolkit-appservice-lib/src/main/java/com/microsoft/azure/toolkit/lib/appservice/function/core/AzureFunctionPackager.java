@@ -15,6 +15,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.microsoft.applicationinsights.core.dependencies.apachecommons.io.input.BOMInputStream;
+import com.microsoft.azure.toolkit.lib.appservice.utils.FileStager;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -73,6 +74,9 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
     private static final String EXTENSION_BUNDLE_ID = "Microsoft.Azure.Functions.ExtensionBundle";
     private static final String EXTENSION_BUNDLE_PREVIEW_ID = "Microsoft.Azure.Functions.ExtensionBundle.Preview";
     private static final BindingEnum[] FUNCTION_WITHOUT_FUNCTION_EXTENSION = { BindingEnum.HttpOutput, BindingEnum.HttpTrigger };
+    private static final String STEP_COSTS = "Time cost of each step: %s";
+    // object writer is immutable and thread safe, so it's shared by all the packages and functions
+    private static final ObjectWriter OBJECT_WRITER = createObjectWriter();
 
     private static class AzureFunctionPackagerHolder {
         static final AzureFunctionPackager instance = new AzureFunctionPackager();
@@ -82,12 +86,22 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         return AzureFunctionPackagerHolder.instance;
     }
 
+    /**
+     * @return the pre-built writer of function.json, which is shared and thread safe
+     */
+    public static ObjectWriter getObjectWriter() {
+        return OBJECT_WRITER;
+    }
+
     @AzureOperation(
             name = "function.prepare_staging_folder",
             type = AzureOperation.Type.TASK
     )
     public void packageProject(FunctionProject project, boolean installExtension, String funcPath) {
+        final Map<String, Long> costs = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
         final List<FunctionMethod> methods = findAnnotatedMethodsInner(project);
+        start = recordCost(costs, "search", start);
 
         if (methods.isEmpty()) {
             AzureMessager.getMessager().info(NO_FUNCTIONS);
@@ -95,23 +109,28 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         }
 
         final Map<String, FunctionConfiguration> configMap = generateConfigurations(project, methods);
+        start = recordCost(costs, "generate", start);
 
         trackFunctionProperties(configMap);
 
         validateFunctionConfigurations(configMap);
-
-        final ObjectWriter objectWriter = getObjectWriter();
+        start = recordCost(costs, "validate", start);
 
         try {
             copyHostJson(project);
             copyLocalSettingsJson(project);
-            writeFunctionJsonFiles(project, objectWriter, configMap);
+            writeFunctionJsonFiles(project, configMap);
+            start = recordCost(costs, "save", start);
             copyJarsToStageDirectory(project);
+            start = recordCost(costs, "copy-jars", start);
             final Set<BindingEnum> bindingEnums = this.getFunctionBindingEnums(configMap);
 
             if (isInstallingExtensionNeeded(!installExtension, project, bindingEnums)) {
                 installExtensionStep(project, funcPath);
             }
+            recordCost(costs, "install-extensions", start);
+            AzureMessager.getMessager().info(LINE_FEED + String.format(STEP_COSTS, costs.entrySet().stream()
+                .map(cost -> String.format("%s %d ms", cost.getKey(), cost.getValue())).collect(Collectors.joining(", "))));
             AzureMessager.getMessager().info(BUILD_SUCCESS);
         } catch (IOException e) {
             throw new AzureToolkitRuntimeException("Cannot perform IO operations due to error:" + e.getMessage(), e);
@@ -153,34 +172,41 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         AzureMessager.getMessager().info(INSTALL_EXTENSIONS_FINISH);
     }
 
+    private static long recordCost(final Map<String, Long> costs, final String step, final long start) {
+        final long now = System.currentTimeMillis();
+        costs.put(step, now - start);
+        AzureTelemetry.getActionContext().setProperty(step + "-cost", String.valueOf(now - start));
+        return now;
+    }
+
     private void validateFunctionConfigurations(final Map<String, FunctionConfiguration> configMap) {
         AzureMessager.getMessager().info(LINE_FEED + VALIDATE_CONFIG);
         if (configMap.isEmpty()) {
             AzureMessager.getMessager().info(VALIDATE_SKIP);
         } else {
-            configMap.values().forEach(FunctionConfiguration::validate);
+            forEachInParallel(configMap.values(), FunctionConfiguration::validate);
             AzureMessager.getMessager().info(VALIDATE_DONE);
         }
     }
 
-    private void writeFunctionJsonFiles(FunctionProject project, final ObjectWriter objectWriter,
-                                        final Map<String, FunctionConfiguration> configMap) throws IOException {
+    private void writeFunctionJsonFiles(FunctionProject project, final Map<String, FunctionConfiguration> configMap) {
         AzureMessager.getMessager().info(LINE_FEED + SAVE_FUNCTION_JSONS);
         if (configMap.size() == 0) {
             AzureMessager.getMessager().info(SAVE_SKIP);
         } else {
-            for (final Map.Entry<String, FunctionConfiguration> config : configMap.entrySet()) {
-                writeFunctionJsonFile(project, objectWriter, config.getKey(), config.getValue());
-            }
+            forEachInParallel(configMap.entrySet(), config -> writeFunctionJsonFile(project, config.getKey(), config.getValue()));
         }
     }
 
-    private void writeFunctionJsonFile(FunctionProject project, final ObjectWriter objectWriter, final String functionName,
-                                       final FunctionConfiguration config) throws IOException {
+    private void writeFunctionJsonFile(FunctionProject project, final String functionName, final FunctionConfiguration config) {
         AzureMessager.getMessager().info(SAVE_FUNCTION_JSON + functionName);
         final File functionJsonFile = Paths.get(project.getStagingFolder().getAbsolutePath(),
                 functionName, FUNCTION_JSON).toFile();
-        writeObjectToFile(objectWriter, config, functionJsonFile);
+        try {
+            writeObjectToFile(OBJECT_WRITER, config, functionJsonFile);
+        } catch (IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("Failed to save configuration of function %s", functionName), e);
+        }
         AzureMessager.getMessager().info(SAVE_SUCCESS + functionJsonFile.getAbsolutePath());
     }
 
@@ -211,12 +237,15 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
 
     private void writeObjectToFile(final ObjectWriter objectWriter, final Object object, final File targetFile)
             throws IOException {
-        targetFile.getParentFile().mkdirs();
-        targetFile.createNewFile();
-        objectWriter.writeValue(targetFile, object);
+        final byte[] content = objectWriter.writeValueAsBytes(object);
+        // keep the file untouched if content is not changed, so that it won't be taken as modified in later steps
+        if (targetFile.isFile() && Arrays.equals(content, FileUtils.readFileToByteArray(targetFile))) {
+            return;
+        }
+        FileUtils.writeByteArrayToFile(targetFile, content);
     }
 
-    private ObjectWriter getObjectWriter() {
+    private static ObjectWriter createObjectWriter() {
         final DefaultPrettyPrinter.Indenter indenter = DefaultIndenter.SYSTEM_LINEFEED_INSTANCE.withLinefeed(StringUtils.LF);
         final PrettyPrinter prettyPrinter = new DefaultPrettyPrinter().withObjectIndenter(indenter);
         return new ObjectMapper()
@@ -229,13 +258,9 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         final String stagingDirectory = project.getStagingFolder().getAbsolutePath();
         AzureMessager.getMessager().info(LINE_FEED + COPY_JARS + stagingDirectory);
         final File libFolder = Paths.get(stagingDirectory, "lib").toFile();
-        if (libFolder.exists()) {
-            FileUtils.cleanDirectory(libFolder);
-        }
-        for (final File file : project.getDependencies()) {
-            FileUtils.copyFileToDirectory(file, libFolder);
-        }
-        FileUtils.copyFileToDirectory(project.getArtifactFile(), new File(stagingDirectory));
+        final FileStager stager = new FileStager();
+        stager.syncDirectory(project.getDependencies(), libFolder);
+        stager.stageFile(project.getArtifactFile(), new File(stagingDirectory));
         AzureMessager.getMessager().info(COPY_SUCCESS);
     }
 
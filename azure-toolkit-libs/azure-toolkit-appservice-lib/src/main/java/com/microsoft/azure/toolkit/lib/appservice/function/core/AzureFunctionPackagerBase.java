@@ -12,6 +12,7 @@ import com.microsoft.azure.functions.annotation.FixedDelayRetry;
 import com.microsoft.azure.functions.annotation.FunctionName;
 import com.microsoft.azure.functions.annotation.StorageAccount;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskContext;
 import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
 import com.microsoft.azure.toolkit.lib.legacy.function.bindings.Binding;
 import com.microsoft.azure.toolkit.lib.legacy.function.bindings.BindingEnum;
@@ -19,16 +20,26 @@ import com.microsoft.azure.toolkit.lib.legacy.function.configurations.FunctionCo
 import com.microsoft.azure.toolkit.lib.legacy.function.configurations.Retry;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Log4j2
 abstract class AzureFunctionPackagerBase {
@@ -37,6 +48,7 @@ abstract class AzureFunctionPackagerBase {
         "please use either of them for one trigger";
 
     private static final String HTTP_OUTPUT_DEFAULT_NAME = "$return";
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
     private static final Map<BindingEnum, List<String>> REQUIRED_ATTRIBUTE_MAP = new HashMap<>();
 
     static {
@@ -58,21 +70,52 @@ abstract class AzureFunctionPackagerBase {
         return config;
     }
 
-    protected Map<String, FunctionConfiguration> generateConfigurationsInner(FunctionProject project, List<FunctionMethod> methods) {
-        final Map<String, FunctionConfiguration> configMap = new HashMap<>();
-        for (final FunctionMethod method : methods) {
+    /**
+     * @return configurations keyed by function name, names are validated to be non-empty and unique
+     */
+    public Map<String, FunctionConfiguration> generateConfigurationsInner(FunctionProject project, List<FunctionMethod> methods) {
+        // names are validated one by one in a stable order, so that the same duplicate is always reported
+        final Map<String, FunctionMethod> functions = new LinkedHashMap<>();
+        for (final FunctionMethod method : methods.stream().sorted(Comparator.comparing(FunctionMethod::toString)).collect(Collectors.toList())) {
             final FunctionAnnotation functionAnnotation = method.getAnnotation(FunctionName.class);
             if (functionAnnotation == null) {
                 continue;
             }
             final String functionName = functionAnnotation.getStringValue("value", false);
-            validateFunctionName(configMap.keySet(), functionName);
-            log.debug("Starting processing function : " + functionName);
-            configMap.put(functionName, generateConfiguration(project, method));
+            validateFunctionName(functions.keySet(), functionName);
+            functions.put(functionName, method);
+        }
+        final List<String> names = new ArrayList<>(functions.keySet());
+        // tasks are wrapped here in the caller thread, since the mapper of flatMap may run in worker threads
+        final List<Callable<FunctionConfiguration>> tasks = names.stream()
+            .map(name -> AzureTaskContext.wrap(() -> {
+                log.debug("Starting processing function : " + name);
+                return generateConfiguration(project, functions.get(name));
+            }))
+            .collect(Collectors.toList());
+        final List<FunctionConfiguration> configurations = Flux.fromIterable(tasks)
+            .flatMapSequential(task -> Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic()), PARALLELISM)
+            .collectList().block();
+        final Map<String, FunctionConfiguration> configMap = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            configMap.put(names.get(i), Objects.requireNonNull(configurations).get(i));
         }
         return configMap;
     }
 
+    /**
+     * Apply the action to all the items concurrently on a bounded pool, and wait until all of them are done.
+     * The action runs with the operation context (and thus the messager) of the caller.
+     */
+    public static <T> void forEachInParallel(final Collection<T> items, final Consumer<T> action) {
+        final List<Runnable> tasks = items.stream()
+            .map(item -> AzureTaskContext.wrap(() -> action.accept(item)))
+            .collect(Collectors.toList());
+        Flux.fromIterable(tasks)
+            .flatMap(task -> Mono.fromRunnable(task).subscribeOn(Schedulers.boundedElastic()), PARALLELISM)
+            .then().block();
+    }
+
     private void patchStorageBinding(final FunctionMethod method, final List<Binding> bindings) {
         final Optional<FunctionAnnotation> storageAccount = method.getAnnotations().stream()
             .filter(annotation -> annotation.isAnnotationType(StorageAccount.class))
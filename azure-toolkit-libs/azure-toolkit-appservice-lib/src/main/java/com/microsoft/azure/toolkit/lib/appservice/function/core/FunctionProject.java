@@ -25,6 +25,11 @@ public abstract class FunctionProject {
     private File hostJsonFile;
     private File localSettingsJsonFile;
 
+    /**
+     * Index of classes declaring functions, functions will be searched incrementally if specified
+     */
+    private File functionIndexFile;
+
     public abstract List<FunctionMethod> findAnnotatedMethods();
 
     public abstract void installExtension(String funcPath);
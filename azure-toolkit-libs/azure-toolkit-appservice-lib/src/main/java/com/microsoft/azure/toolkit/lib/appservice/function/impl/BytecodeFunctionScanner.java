@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.function.impl;
+
+import com.microsoft.azure.functions.annotation.FunctionName;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionAnnotation;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionAnnotationClass;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionMethod;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Find Azure Functions by reading annotations from class files directly, no class is loaded or initialized,
+ * so the scan doesn't require the whole dependency closure to be resolvable. Annotation types are read from
+ * the given classpath (as resources) only to resolve their default values and meta annotations.
+ * Both class directories and jars are scanned, so functions declared in dependencies are found as well.
+ */
+@Log4j2
+public class BytecodeFunctionScanner {
+    private static final String FUNCTION_NAME_DESCRIPTOR = Type.getDescriptor(FunctionName.class);
+    private static final String CLASS_EXTENSION = "class";
+    private static final String JAR_EXTENSION = "jar";
+    private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    private final Map<String, AnnotationType> annotationTypes = new HashMap<>();
+    @Nullable
+    private final File indexFile;
+
+    public BytecodeFunctionScanner() {
+        this(null);
+    }
+
+    /**
+     * @param indexFile file of the {@link FunctionIndex}, with which unchanged class files and jars declaring no function
+     *                  are not parsed (or even opened) again, functions are searched from scratch if null
+     */
+    public BytecodeFunctionScanner(@Nullable final File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * @param classesDirectory output directory of the project, only classes in it will be scanned
+     * @param classpath        classpath to look up annotation types
+     */
+    public List<FunctionMethod> scan(@Nonnull final File classesDirectory, @Nonnull final List<URL> classpath) {
+        return scan(Collections.singletonList(classesDirectory), classpath);
+    }
+
+    /**
+     * @param roots     class directories and jars to scan, e.g. output directory and dependencies of the project
+     * @param classpath classpath to look up annotation types
+     */
+    public List<FunctionMethod> scan(@Nonnull final List<File> roots, @Nonnull final List<URL> classpath) {
+        final FunctionIndex previous = indexFile == null ? new FunctionIndex() : FunctionIndex.load(indexFile);
+        final FunctionIndex current = new FunctionIndex();
+        final List<MethodData> methods = new ArrayList<>();
+        for (final File root : roots) {
+            try {
+                if (root.isDirectory()) {
+                    scanDirectory(root, methods, previous, current);
+                } else if (root.isFile() && FilenameUtils.isExtension(root.getName(), JAR_EXTENSION)) {
+                    scanJar(root, methods, previous, current);
+                }
+            } catch (IOException e) {
+                throw new AzureToolkitRuntimeException(String.format("Failed to read class files in %s", root), e);
+            }
+        }
+        if (indexFile != null) {
+            current.save(indexFile);
+        }
+        // the same class may be found in more than one root, e.g. output directory and the packaged artifact
+        final Map<String, MethodData> unique = new LinkedHashMap<>();
+        methods.forEach(method -> unique.putIfAbsent(method.owner + "." + method.name + method.descriptor, method));
+        try (final URLClassLoader resources = new URLClassLoader(classpath.toArray(new URL[0]), BytecodeFunctionScanner.class.getClassLoader())) {
+            return unique.values().stream().map(method -> toFunctionMethod(method, resources)).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new AzureToolkitRuntimeException("Failed to close classpath of annotation types", e);
+        }
+    }
+
+    private void scanDirectory(final File directory, final List<MethodData> methods,
+                               final FunctionIndex previous, final FunctionIndex current) throws IOException {
+        final Path root = directory.toPath();
+        try (final Stream<Path> paths = Files.walk(root)) {
+            for (final Path path : paths.filter(p -> FilenameUtils.isExtension(p.toString(), CLASS_EXTENSION)).sorted().collect(Collectors.toList())) {
+                final byte[] content = Files.readAllBytes(path);
+                if (indexFile == null) {
+                    parse(content, methods);
+                    continue;
+                }
+                final String key = FunctionIndex.getKey(directory, FilenameUtils.separatorsToUnix(root.relativize(path).toString()));
+                final String digest = FunctionIndex.getDigest(content);
+                if (!current.reuse(previous, key, digest)) {
+                    current.put(key, digest, parse(content, methods));
+                } else if (!current.getClasses(key).isEmpty()) {
+                    parse(content, methods);
+                }
+            }
+        }
+    }
+
+    private void scanJar(final File jar, final List<MethodData> methods,
+                         final FunctionIndex previous, final FunctionIndex current) throws IOException {
+        final String key = FunctionIndex.getKey(jar);
+        final String fingerprint = FunctionIndex.getFingerprint(jar);
+        final boolean unchanged = indexFile != null && current.reuse(previous, key, fingerprint);
+        if (unchanged && current.getClasses(key).isEmpty()) {
+            return;
+        }
+        try (final ZipFile zip = new ZipFile(jar)) {
+            if (unchanged) {
+                log.debug(String.format("Jar %s is not changed, only indexed classes are parsed", jar));
+                for (final String className : current.getClasses(key)) {
+                    final ZipEntry entry = zip.getEntry(className.replace('.', '/') + "." + CLASS_EXTENSION);
+                    if (entry != null) {
+                        parse(zip, entry, methods);
+                    }
+                }
+                return;
+            }
+            final List<? extends ZipEntry> entries = zip.stream()
+                // versioned classes of multi-release jars duplicate the ones in the root
+                .filter(entry -> !entry.isDirectory() && !entry.getName().startsWith("META-INF/"))
+                .filter(entry -> FilenameUtils.isExtension(entry.getName(), CLASS_EXTENSION))
+                .sorted(Comparator.comparing(ZipEntry::getName))
+                .collect(Collectors.toList());
+            final List<String> classes = new ArrayList<>();
+            for (final ZipEntry entry : entries) {
+                classes.addAll(parse(zip, entry, methods));
+            }
+            if (indexFile != null) {
+                current.put(key, fingerprint, classes);
+            }
+        }
+    }
+
+    private static List<String> parse(final ZipFile zip, final ZipEntry entry, final List<MethodData> methods) throws IOException {
+        try (final InputStream input = zip.getInputStream(entry)) {
+            return parse(IOUtils.toByteArray(input), methods);
+        }
+    }
+
+    /**
+     * @return binary name of the parsed class in a singleton list if it declares any function, otherwise empty list
+     */
+    private static List<String> parse(final byte[] content, final List<MethodData> methods) {
+        final int found = methods.size();
+        final ClassReader reader = new ClassReader(content);
+        reader.accept(new FunctionClassVisitor(methods), PARSING_OPTIONS);
+        return methods.size() > found ? Collections.singletonList(Type.getObjectType(reader.getClassName()).getClassName()) : Collections.emptyList();
+    }
+
+    private FunctionMethod toFunctionMethod(final MethodData method, final ClassLoader resources) {
+        final FunctionMethod functionMethod = new FunctionMethod();
+        functionMethod.setName(method.name);
+        functionMethod.setReturnTypeName(toCanonicalName(Type.getReturnType(method.descriptor).getClassName()));
+        functionMethod.setDeclaringTypeName(toCanonicalName(Type.getObjectType(method.owner).getClassName()));
+        functionMethod.setAnnotations(method.annotations.stream()
+            .map(annotation -> toFunctionAnnotation(annotation, resources, true)).collect(Collectors.toList()));
+        functionMethod.setParameterAnnotations(Arrays.stream(method.parameterAnnotations)
+            .map(annotations -> annotations.stream().map(annotation -> toFunctionAnnotation(annotation, resources, true))
+                .toArray(FunctionAnnotation[]::new))
+            .collect(Collectors.toList()));
+        return functionMethod;
+    }
+
+    /**
+     * Split values into declared and default properties the same way as {@link DefaultFunctionProject#create(java.lang.annotation.Annotation)},
+     * where array values are never taken as default since a copy is returned every time by reflection.
+     */
+    private FunctionAnnotation toFunctionAnnotation(final AnnotationData annotation, final ClassLoader resources, final boolean resolveMetaAnnotations) {
+        final AnnotationType type = getAnnotationType(annotation.descriptor, resources);
+        final Map<String, Object> properties = new HashMap<>();
+        final Map<String, Object> defaultProperties = new HashMap<>();
+        final Set<String> members = new HashSet<>(type.members);
+        members.addAll(annotation.values.keySet());
+        for (final String member : members) {
+            final Object value = annotation.values.containsKey(member) ? annotation.values.get(member) : type.defaults.get(member);
+            if (value == null) {
+                continue;
+            }
+            if (!type.arrayMembers.contains(member) && Objects.equals(value, type.defaults.get(member))) {
+                defaultProperties.put(member, value);
+            } else {
+                properties.put(member, value);
+            }
+        }
+        final FunctionAnnotationClass annotationClass = new FunctionAnnotationClass();
+        annotationClass.setFullName(type.fullName);
+        annotationClass.setName(StringUtils.substringAfterLast("." + type.fullName, "."));
+        annotationClass.setAnnotations(!resolveMetaAnnotations ? Collections.emptyList() : type.metaAnnotations.stream()
+            .map(meta -> toFunctionAnnotation(meta, resources, false)).collect(Collectors.toList()));
+        final FunctionAnnotation result = new FunctionAnnotation();
+        result.setAnnotationClass(annotationClass);
+        result.setProperties(properties);
+        result.setDefaultProperties(defaultProperties);
+        return result;
+    }
+
+    private AnnotationType getAnnotationType(final String descriptor, final ClassLoader resources) {
+        return annotationTypes.computeIfAbsent(descriptor, key -> {
+            final Type type = Type.getType(descriptor);
+            final AnnotationType result = new AnnotationType(toCanonicalName(type.getClassName()));
+            try (final InputStream input = resources.getResourceAsStream(type.getInternalName() + ".class")) {
+                if (input == null) {
+                    log.debug(String.format("Class file of annotation %s is not found, default values are ignored", type.getClassName()));
+                    return result;
+                }
+                new ClassReader(input).accept(new AnnotationTypeVisitor(result), PARSING_OPTIONS);
+                return result;
+            } catch (IOException e) {
+                throw new AzureToolkitRuntimeException(String.format("Failed to read annotation %s", type.getClassName()), e);
+            }
+        });
+    }
+
+    private static String toCanonicalName(final String binaryName) {
+        return binaryName.replace('$', '.');
+    }
+
+    private static Object toValue(final Object value) {
+        // class values are kept as names, as the class is not (and should not be) loaded
+        return value instanceof Type ? toCanonicalName(((Type) value).getClassName()) : value;
+    }
+
+    private static class MethodData {
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+        private final List<AnnotationData> annotations = new ArrayList<>();
+        private final List<AnnotationData>[] parameterAnnotations;
+
+        @SuppressWarnings("unchecked")
+        MethodData(final String owner, final String name, final String descriptor) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.parameterAnnotations = Stream.generate(ArrayList::new).limit(Type.getArgumentTypes(descriptor).length).toArray(List[]::new);
+        }
+
+        private boolean isFunction() {
+            return annotations.stream().anyMatch(annotation -> FUNCTION_NAME_DESCRIPTOR.equals(annotation.descriptor));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class AnnotationData {
+        private final String descriptor;
+        private final Map<String, Object> values = new LinkedHashMap<>();
+    }
+
+    @RequiredArgsConstructor
+    private static class AnnotationType {
+        private final String fullName;
+        private final Set<String> members = new HashSet<>();
+        private final Set<String> arrayMembers = new HashSet<>();
+        private final Map<String, Object> defaults = new HashMap<>();
+        private final List<AnnotationData> metaAnnotations = new ArrayList<>();
+    }
+
+    private static class FunctionClassVisitor extends ClassVisitor {
+        private final List<MethodData> functions;
+        private String className;
+
+        FunctionClassVisitor(final List<MethodData> functions) {
+            super(Opcodes.ASM9);
+            this.functions = functions;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.className = name;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            if ((access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0) {
+                return null;
+            }
+            final MethodData method = new MethodData(className, name, descriptor);
+            return new MethodVisitor(Opcodes.ASM9) {
+                private int parameterOffset = 0;
+
+                @Override
+                public void visitAnnotableParameterCount(int parameterCount, boolean visible) {
+                    if (visible) {
+                        // e.g. synthetic parameters of constructors are not annotable
+                        parameterOffset = method.parameterAnnotations.length - parameterCount;
+                    }
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                    return visible ? collect(descriptor, method.annotations) : null;
+                }
+
+                @Override
+                public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+                    return visible ? collect(descriptor, method.parameterAnnotations[parameter + parameterOffset]) : null;
+                }
+
+                @Override
+                public void visitEnd() {
+                    if (method.isFunction()) {
+                        functions.add(method);
+                    }
+                }
+            };
+        }
+    }
+
+    private static class AnnotationTypeVisitor extends ClassVisitor {
+        private final AnnotationType type;
+
+        AnnotationTypeVisitor(final AnnotationType type) {
+            super(Opcodes.ASM9);
+            this.type = type;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return visible ? collect(descriptor, type.metaAnnotations) : null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            if ((access & Opcodes.ACC_ABSTRACT) == 0) {
+                return null;
+            }
+            type.members.add(name);
+            if (Type.getReturnType(descriptor).getSort() == Type.ARRAY) {
+                type.arrayMembers.add(name);
+            }
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public AnnotationVisitor visitAnnotationDefault() {
+                    return new ValueVisitor((ignore, value) -> type.defaults.put(name, value));
+                }
+            };
+        }
+    }
+
+    private static AnnotationVisitor collect(final String descriptor, final List<AnnotationData> annotations) {
+        final AnnotationData annotation = new AnnotationData(descriptor);
+        annotations.add(annotation);
+        return new ValueVisitor(annotation.values::put);
+    }
+
+    /**
+     * Collect values of annotation members, arrays are collected as {@code Object[]}, enums as constant names
+     * and nested annotations as maps from member names to values.
+     */
+    private static class ValueVisitor extends AnnotationVisitor {
+        private final BiConsumer<String, Object> consumer;
+        @Nullable
+        private final Runnable onEnd;
+
+        ValueVisitor(final BiConsumer<String, Object> consumer) {
+            this(consumer, null);
+        }
+
+        ValueVisitor(final BiConsumer<String, Object> consumer, @Nullable final Runnable onEnd) {
+            super(Opcodes.ASM9);
+            this.consumer = consumer;
+            this.onEnd = onEnd;
+        }
+
+        @Override
+        public void visit(String name, Object value) {
+            consumer.accept(name, toValue(value));
+        }
+
+        @Override
+        public void visitEnum(String name, String descriptor, String value) {
+            consumer.accept(name, value);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+            final Map<String, Object> values = new LinkedHashMap<>();
+            consumer.accept(name, values);
+            return new ValueVisitor(values::put);
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            final List<Object> values = new ArrayList<>();
+            return new ValueVisitor((ignore, value) -> values.add(value), () -> consumer.accept(name, values.toArray()));
+        }
+
+        @Override
+        public void visitEnd() {
+            if (onEnd != null) {
+                onEnd.run();
+            }
+        }
+    }
+}
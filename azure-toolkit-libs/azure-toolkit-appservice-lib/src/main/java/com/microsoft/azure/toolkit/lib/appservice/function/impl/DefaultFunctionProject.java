@@ -14,6 +14,7 @@ import com.microsoft.azure.toolkit.lib.legacy.function.handlers.CommandHandler;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.CommandHandlerImpl;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreToolsHandler;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreToolsHandlerImpl;
+import com.microsoft.azure.toolkit.lib.legacy.function.handlers.IncrementalAnnotationHandler;
 import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
 import org.reflections.Reflections;
@@ -21,6 +22,7 @@ import org.reflections.scanners.Scanners;
 import org.reflections.util.ConfigurationBuilder;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -41,8 +43,30 @@ import java.util.stream.Collectors;
 @Log4j2
 public class DefaultFunctionProject extends FunctionProject {
 
+    /**
+     * Find functions from class files of the project and its dependencies with {@link BytecodeFunctionScanner},
+     * without loading any class, incrementally if the function index file is specified. Falls back to reflection
+     * if the classes output directory doesn't exist or class files can not be read.
+     */
     @Override
     public List<FunctionMethod> findAnnotatedMethods() {
+        final File classesDirectory = getClassesOutputDirectory();
+        if (classesDirectory != null && classesDirectory.isDirectory()) {
+            try {
+                final List<File> roots = new ArrayList<>();
+                roots.add(classesDirectory);
+                roots.addAll(getDependencies());
+                final List<URL> classpath = getDependencyArtifactUrls();
+                classpath.add(classesDirectory.toURI().toURL());
+                return new BytecodeFunctionScanner(getFunctionIndexFile()).scan(roots, classpath);
+            } catch (MalformedURLException | RuntimeException e) {
+                log.debug("Failed to find functions from class files, fall back to reflection", e);
+            }
+        }
+        return findAnnotatedMethodsByReflection();
+    }
+
+    List<FunctionMethod> findAnnotatedMethodsByReflection() {
         Set<Method> methods;
         try {
             try {
@@ -81,7 +105,7 @@ public class DefaultFunctionProject extends FunctionProject {
     /**
      * @return URLs for the classpath with compile scope needed jars
      */
-    private List<URL> getDependencyArtifactUrls() {
+    protected List<URL> getDependencyArtifactUrls() {
         final List<URL> urlList = new ArrayList<>();
         getDependencies().forEach(file -> {
             try {
@@ -93,7 +117,10 @@ public class DefaultFunctionProject extends FunctionProject {
         return urlList;
     }
 
-    private static Set<Method> findFunctions(final List<URL> urls) {
+    private Set<Method> findFunctions(final List<URL> urls) {
+        if (getFunctionIndexFile() != null) {
+            return new IncrementalAnnotationHandler(getFunctionIndexFile()).findFunctions(urls);
+        }
         return new Reflections(
             new ConfigurationBuilder()
                 .addUrls(urls)
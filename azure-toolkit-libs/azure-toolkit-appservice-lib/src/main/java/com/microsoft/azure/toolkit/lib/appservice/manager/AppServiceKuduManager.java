@@ -15,6 +15,7 @@ import com.azure.core.annotation.PathParam;
 import com.azure.core.annotation.Post;
 import com.azure.core.annotation.Put;
 import com.azure.core.annotation.ServiceInterface;
+import com.azure.core.exception.HttpResponseException;
 import com.azure.core.http.HttpPipeline;
 import com.azure.core.http.HttpPipelineBuilder;
 import com.azure.core.http.policy.HttpPipelinePolicy;
@@ -36,6 +37,7 @@ import com.microsoft.azure.toolkit.lib.appservice.service.IFileClient;
 import com.microsoft.azure.toolkit.lib.appservice.service.IProcessClient;
 import com.microsoft.azure.toolkit.lib.appservice.utils.Utils;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.http.HttpTransport;
 import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
 import lombok.Data;
 import lombok.experimental.SuperBuilder;
@@ -44,11 +46,15 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class AppServiceKuduManager implements IFileClient, IProcessClient {
@@ -81,7 +87,7 @@ public class AppServiceKuduManager implements IFileClient, IProcessClient {
 
         final HttpPipeline httpPipeline = new HttpPipelineBuilder()
                 .policies(policies.toArray(new HttpPipelinePolicy[0]))
-                .httpClient(webAppBase.manager().httpPipeline().getHttpClient())
+                .httpClient(HttpTransport.getHttpClient()) // share connections with resource managers and other kudu clients
                 .build();
         final KuduService kuduService = RestProxy.create(KuduService.class, httpPipeline,
                 SerializerFactory.createDefaultManagementSerializerAdapter());
@@ -134,6 +140,28 @@ public class AppServiceKuduManager implements IFileClient, IProcessClient {
         return this.kuduService.getAppServiceTunnelStatus(host).block().getValue();
     }
 
+    /**
+     * @return app settings seen by kudu, which may lag behind the ones updated through management api
+     */
+    public Map<String, String> getAppSettings() {
+        return Optional.ofNullable(this.kuduService.getAppSettings(host).block()).map(Response::getValue).orElse(Collections.emptyMap());
+    }
+
+    /**
+     * @return the latest deployment record (e.g. "id", "complete"), null if there is no deployment at all
+     */
+    @Nullable
+    public Map<String, Object> getLatestDeployment() {
+        try {
+            return Optional.ofNullable(this.kuduService.getLatestDeployment(host).block()).map(Response::getValue).orElse(null);
+        } catch (HttpResponseException e) {
+            if (e.getResponse() != null && e.getResponse().getStatusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
     @Host("{$host}")
     @ServiceInterface(name = "KuduService")
     private interface KuduService {
@@ -188,6 +216,19 @@ public class AppServiceKuduManager implements IFileClient, IProcessClient {
         })
         @Get("AppServiceTunnel/Tunnel.ashx?GetStatus&GetStatusAPIVer=2")
         Mono<Response<TunnelStatus>> getAppServiceTunnelStatus(@HostParam("$host") String host);
+
+        @Headers({
+                "Content-Type: application/json; charset=utf-8",
+                "x-ms-body-logging: false"
+        })
+        @Get("api/settings")
+        Mono<Response<Map<String, String>>> getAppSettings(@HostParam("$host") String host);
+
+        @Headers({
+                "Content-Type: application/json; charset=utf-8"
+        })
+        @Get("api/deployments/latest")
+        Mono<Response<Map<String, Object>>> getLatestDeployment(@HostParam("$host") String host);
     }
 
     @Data
@@ -35,16 +35,20 @@ import com.microsoft.azure.toolkit.lib.appservice.service.IFileClient;
 import com.microsoft.azure.toolkit.lib.appservice.service.impl.FunctionAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.utils.Utils;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.http.HttpTransport;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class AzureFunctionsResourceManager implements IFileClient {
@@ -72,7 +76,7 @@ public class AzureFunctionsResourceManager implements IFileClient {
 
         final HttpPipeline httpPipeline = new HttpPipelineBuilder()
                 .policies(policies.toArray(new HttpPipelinePolicy[0]))
-                .httpClient(functionApp.manager().httpPipeline().getHttpClient())
+                .httpClient(HttpTransport.getHttpClient()) // share connections with resource managers and other kudu clients
                 .build();
         final FunctionsService functionsService = RestProxy.create(FunctionsService.class, httpPipeline,
                 SerializerFactory.createDefaultManagementSerializerAdapter());
@@ -112,6 +116,22 @@ public class AzureFunctionsResourceManager implements IFileClient {
         this.functionsService.deleteFile(host, getFixedPath(path)).block();
     }
 
+    /**
+     * @return state of the functions host, e.g. "Running", "Error" or "Offline"
+     */
+    @Nullable
+    public String getHostState() {
+        return Optional.ofNullable(getHostStatus()).map(status -> status.get("state")).map(String::valueOf).orElse(null);
+    }
+
+    /**
+     * @return status of the functions host, e.g. "state", "version" and "processUptime" (in milliseconds)
+     */
+    @Nullable
+    public Map<String, Object> getHostStatus() {
+        return Optional.ofNullable(this.functionsService.getHostStatus(host).block()).map(Response::getValue).orElse(null);
+    }
+
     private String getFixedPath(String originPath) {
         return appService.getRuntime().getOperatingSystem() == OperatingSystem.WINDOWS || StringUtils.startsWithIgnoreCase(originPath, LINUX_ROOT) ?
                 originPath : Paths.get(LINUX_ROOT, originPath).toString();
@@ -151,5 +171,11 @@ public class AzureFunctionsResourceManager implements IFileClient {
         })
         @Delete("admin/vfs/{path}")
         Mono<Void> deleteFile(@HostParam("$host") String host, @PathParam("path") String path);
+
+        @Headers({
+            "Content-Type: application/json; charset=utf-8"
+        })
+        @Get("admin/host/status")
+        Mono<Response<Map<String, Object>>> getHostStatus(@HostParam("$host") String host);
     }
 }
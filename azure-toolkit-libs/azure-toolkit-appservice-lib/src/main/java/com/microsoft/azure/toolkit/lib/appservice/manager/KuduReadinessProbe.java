@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.manager;
+
+import com.azure.core.exception.HttpResponseException;
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Polls kudu until the app reaches an expected state, with exponential backoff between attempts and an overall deadline.
+ * Failed attempts (e.g. 502 while the scm site is restarting) are retried, except client errors which mean the endpoint
+ * or host is not available for the app at all (e.g. linux consumption plan), in which case polling stops immediately.
+ */
+@Log4j2
+public class KuduReadinessProbe {
+    private static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(8);
+    private static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(60);
+    private static final String HOST_RUNNING = "Running";
+
+    private final AppServiceKuduManager kuduManager;
+    private final Duration initialInterval;
+    private final Duration maxInterval;
+    private final Duration deadline;
+
+    public KuduReadinessProbe(@Nonnull final AppServiceKuduManager kuduManager) {
+        this(kuduManager, DEFAULT_INITIAL_INTERVAL, DEFAULT_MAX_INTERVAL, DEFAULT_DEADLINE);
+    }
+
+    public KuduReadinessProbe(@Nonnull final AppServiceKuduManager kuduManager, @Nonnull final Duration initialInterval,
+                              @Nonnull final Duration maxInterval, @Nonnull final Duration deadline) {
+        this.kuduManager = kuduManager;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return whether kudu sees the app setting with expected value before deadline
+     */
+    public boolean waitForAppSetting(@Nonnull final String key, @Nonnull final String value) {
+        return waitUntil(() -> StringUtils.equals(kuduManager.getAppSettings().get(key), value),
+                String.format("app setting %s to be propagated", key));
+    }
+
+    /**
+     * @return id of the latest deployment, null if there is no deployment yet or kudu is not available
+     */
+    @Nullable
+    public String getLatestDeploymentId() {
+        try {
+            return Optional.ofNullable(kuduManager.getLatestDeployment()).map(deployment -> deployment.get("id")).map(String::valueOf).orElse(null);
+        } catch (RuntimeException e) {
+            log.debug("Failed to get the latest deployment", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param previousDeploymentId id of the latest deployment before deploying, see {@link #getLatestDeploymentId()}
+     * @return whether a deployment other than the previous one shows up and completes before deadline
+     */
+    public boolean waitForDeployment(@Nullable final String previousDeploymentId) {
+        return waitUntil(() -> Optional.ofNullable(kuduManager.getLatestDeployment())
+                        .filter(deployment -> !StringUtils.equals(String.valueOf(deployment.get("id")), previousDeploymentId))
+                        .map(deployment -> Boolean.parseBoolean(String.valueOf(deployment.get("complete"))))
+                        .orElse(false),
+                "new deployment to complete");
+    }
+
+    /**
+     * For deployments which are not recorded by kudu, e.g. run from blob, ms deploy and ftp, the functions host is
+     * restarted to load the new package, so a host which has been running since before the deployment is not ready yet.
+     * Hosts which don't report their uptime are considered ready once running.
+     *
+     * @param since time in milliseconds when the deployment started
+     * @return whether the functions host is restarted since then and reports running state before deadline
+     */
+    public boolean waitForHostRestart(@Nonnull final Callable<Map<String, Object>> hostStatus, final long since) {
+        return waitUntil(() -> {
+            final Map<String, Object> status = hostStatus.call();
+            if (status == null || !StringUtils.equalsIgnoreCase(String.valueOf(status.get("state")), HOST_RUNNING)) {
+                return false;
+            }
+            final Object uptime = status.get("processUptime");
+            return !(uptime instanceof Number) || System.currentTimeMillis() - ((Number) uptime).longValue() >= since;
+        }, "functions host to be restarted");
+    }
+
+    /**
+     * @return whether the condition turns true before deadline
+     */
+    public boolean waitUntil(@Nonnull final Callable<Boolean> condition, @Nonnull final String description) {
+        final long start = System.currentTimeMillis();
+        final Boolean result;
+        try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.POLLING)) {
+            result = Mono.fromCallable(condition)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(ready -> Boolean.TRUE.equals(ready) ? Mono.just(true) : Mono.<Boolean>error(new NotReadyException()))
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, initialInterval).maxBackoff(maxInterval).filter(KuduReadinessProbe::isRetryable))
+                    .timeout(deadline)
+                    .onErrorResume(e -> {
+                        log.debug(String.format("Stop waiting for %s after %d ms", description, System.currentTimeMillis() - start), e);
+                        return Mono.just(false);
+                    })
+                    .block();
+        }
+        log.debug(String.format("Waited %d ms for %s", System.currentTimeMillis() - start, description));
+        return Boolean.TRUE.equals(result);
+    }
+
+    private static boolean isRetryable(final Throwable e) {
+        if (e instanceof HttpResponseException && ((HttpResponseException) e).getResponse() != null) {
+            final int statusCode = ((HttpResponseException) e).getResponse().getStatusCode();
+            return statusCode >= 500 || statusCode == 408 || statusCode == 429;
+        }
+        // scm site doesn't exist, e.g. linux consumption plan
+        return !(ExceptionUtils.getRootCause(e) instanceof UnknownHostException);
+    }
+
+    private static class NotReadyException extends RuntimeException {
+        NotReadyException() {
+            super(null, null, false, false);
+        }
+    }
+}
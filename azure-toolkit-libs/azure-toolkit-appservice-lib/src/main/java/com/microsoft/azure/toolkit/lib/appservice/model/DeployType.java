@@ -80,6 +80,13 @@ public class DeployType {
         return Arrays.asList(DeployType.JAR, DeployType.EAR, DeployType.SCRIPT_STARTUP).contains(this);
     }
 
+    /**
+     * @return whether one deploy cleans the target directory by default, which removes artifacts deployed before
+     */
+    public boolean isCleanByDefault() {
+        return Arrays.asList(DeployType.WAR, DeployType.JAR, DeployType.EAR, DeployType.ZIP).contains(this);
+    }
+
     public String getTargetPathPrefix() {
         return TYPE_TO_TARGET_DIRECTORY_MAP.get(this);
     }
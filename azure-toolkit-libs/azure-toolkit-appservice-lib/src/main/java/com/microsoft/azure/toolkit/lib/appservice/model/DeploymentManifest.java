@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.model;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.Getter;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * SHA-256 digests of deployed artifacts, keyed by deploy type and target path of the artifact.
+ */
+@Getter
+public class DeploymentManifest {
+    private final Map<String, String> digests = new TreeMap<>();
+
+    public static DeploymentManifest fromArtifacts(@Nonnull final List<WebAppArtifact> artifacts) {
+        final DeploymentManifest manifest = new DeploymentManifest();
+        artifacts.forEach(artifact -> manifest.digests.put(getKey(artifact), getDigest(artifact)));
+        return manifest;
+    }
+
+    @Nonnull
+    public static DeploymentManifest fromJson(@Nullable final String json) {
+        return Optional.ofNullable(StringUtils.isBlank(json) ? null : JsonUtils.fromJson(json, DeploymentManifest.class))
+            .orElseGet(DeploymentManifest::new);
+    }
+
+    public String toJson() {
+        return JsonUtils.toJson(this);
+    }
+
+    /**
+     * @return whether the artifact has been deployed with the same content as recorded in this manifest
+     */
+    public boolean isUpToDate(@Nonnull final WebAppArtifact artifact, @Nonnull final DeploymentManifest current) {
+        final String key = getKey(artifact);
+        return Objects.nonNull(digests.get(key)) && Objects.equals(digests.get(key), current.digests.get(key));
+    }
+
+    public static String getKey(@Nonnull final WebAppArtifact artifact) {
+        final DeployType type = artifact.getDeployType();
+        final String path = type.ignorePath() ? StringUtils.EMPTY : StringUtils.defaultString(artifact.getPath());
+        return String.format("%s:%s:%s", type.getValue(), path, artifact.getFile().getName());
+    }
+
+    private static String getDigest(@Nonnull final WebAppArtifact artifact) {
+        try (final InputStream input = Files.newInputStream(artifact.getFile().toPath())) {
+            return DigestUtils.sha256Hex(input);
+        } catch (IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to calculate digest of artifact %s", artifact.getFile()), e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.azure.resourcemanager.appservice.models.WebAppBase;
 import com.azure.resourcemanager.appservice.models.WebSiteBase;
 import com.microsoft.azure.toolkit.lib.appservice.entity.AppServiceBaseEntity;
 import com.microsoft.azure.toolkit.lib.appservice.manager.AzureFunctionsResourceManager;
+import com.microsoft.azure.toolkit.lib.appservice.manager.KuduReadinessProbe;
 import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
 import com.microsoft.azure.toolkit.lib.appservice.model.PricingTier;
@@ -24,6 +25,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.util.Map;
 
 public abstract class FunctionAppBase<T extends WebAppBase, R extends AppServiceBaseEntity> extends AbstractAppService<T, R> implements IFunctionAppBase<R> {
     private AzureFunctionsResourceManager functionsResourceManager;
@@ -52,14 +54,28 @@ public abstract class FunctionAppBase<T extends WebAppBase, R extends AppService
 
     @Override
     protected IFileClient getFileClient() {
-        // kudu api does not applies to linux consumption, using functions admin api instead
-        if (functionsResourceManager == null) {
-            functionsResourceManager = AzureFunctionsResourceManager.getClient(remote(), this);
-        }
-        return functionsResourceManager;
+        return getFunctionsResourceManager();
+    }
+
+    public KuduReadinessProbe getReadinessProbe() {
+        return new KuduReadinessProbe(getKuduManager());
+    }
+
+    /**
+     * @return state of the functions host, e.g. "Running", "Error" or "Offline"
+     */
+    public String getHostState() {
+        return getFunctionsResourceManager().getHostState();
     }
 
-    protected FunctionDeployType getDefaultDeployType() {
+    /**
+     * @return status of the functions host, see {@link AzureFunctionsResourceManager#getHostStatus()}
+     */
+    public Map<String, Object> getHostStatus() {
+        return getFunctionsResourceManager().getHostStatus();
+    }
+
+    public FunctionDeployType getDefaultDeployType() {
         if (getRuntime().getOperatingSystem() == OperatingSystem.WINDOWS) {
             return FunctionDeployType.RUN_FROM_ZIP;
         }
@@ -68,6 +84,14 @@ public abstract class FunctionAppBase<T extends WebAppBase, R extends AppService
                 FunctionDeployType.RUN_FROM_BLOB : FunctionDeployType.RUN_FROM_ZIP;
     }
 
+    protected AzureFunctionsResourceManager getFunctionsResourceManager() {
+        // kudu api does not applies to linux consumption, using functions admin api instead
+        if (functionsResourceManager == null) {
+            functionsResourceManager = AzureFunctionsResourceManager.getClient(remote(), this);
+        }
+        return functionsResourceManager;
+    }
+
     protected IFunctionDeployHandler getDeployHandlerByType(final FunctionDeployType deployType) {
         switch (deployType) {
             case FTP:
@@ -77,7 +101,7 @@ public abstract class FunctionAppBase<T extends WebAppBase, R extends AppService
             case MSDEPLOY:
                 return new MSFunctionDeployHandler();
             case RUN_FROM_ZIP:
-                return new RunFromZipFunctionDeployHandler();
+                return new RunFromZipFunctionDeployHandler(getReadinessProbe());
             case RUN_FROM_BLOB:
                 return new RunFromBlobFunctionDeployHandler();
             default:
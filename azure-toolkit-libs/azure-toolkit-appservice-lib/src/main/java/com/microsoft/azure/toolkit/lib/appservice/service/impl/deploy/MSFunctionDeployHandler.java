@@ -12,6 +12,7 @@ import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.legacy.function.AzureStorageHelper;
+import com.microsoft.azure.toolkit.lib.legacy.function.BlockBlobUploader;
 import com.microsoft.azure.toolkit.lib.legacy.function.Constants;
 
 import java.io.File;
@@ -29,6 +30,16 @@ public class MSFunctionDeployHandler implements IFunctionDeployHandler {
     private static final String DELETE_PACKAGE_DONE = "Successfully deleted deployment package ";
     private static final String DELETE_PACKAGE_FAIL = "Failed to delete deployment package ";
 
+    private final BlockBlobUploader uploader;
+
+    public MSFunctionDeployHandler() {
+        this(new BlockBlobUploader());
+    }
+
+    public MSFunctionDeployHandler(final BlockBlobUploader uploader) {
+        this.uploader = uploader;
+    }
+
     @Override
     public void deploy(final File file, final WebAppBase webAppBase) {
         final CloudStorageAccount storageAccount = DeployUtils.getCloudStorageAccount(webAppBase);
@@ -51,7 +62,7 @@ public class MSFunctionDeployHandler implements IFunctionDeployHandler {
         AzureMessager.getMessager().info(UPLOAD_PACKAGE_START);
         try {
             final CloudBlockBlob blob = AzureStorageHelper.uploadFileAsBlob(zipPackage, storageAccount,
-                    DEPLOYMENT_PACKAGE_CONTAINER, blobName, BlobContainerPublicAccessType.OFF);
+                    DEPLOYMENT_PACKAGE_CONTAINER, blobName, BlobContainerPublicAccessType.OFF, uploader);
             final String packageUri = AzureStorageHelper.getSASToken(blob, Period.ofDays(1)); // no need for a long period as it will be deleted after deployment
             AzureMessager.getMessager().info(UPLOAD_PACKAGE_DONE + blob.getUri().toString());
             return packageUri;
@@ -16,6 +16,7 @@ import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.legacy.function.AzureStorageHelper;
+import com.microsoft.azure.toolkit.lib.legacy.function.BlockBlobUploader;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
@@ -30,6 +31,16 @@ public class RunFromBlobFunctionDeployHandler implements IFunctionDeployHandler
     private static final String FAILED_TO_GET_FUNCTION_APP_ARTIFACT_CONTAINER = "Failed to get Function App artifact container";
     private static final String UPDATE_ACCESS_LEVEL_TO_PRIVATE = "The blob container '%s' access level was updated to be private";
 
+    private final BlockBlobUploader uploader;
+
+    public RunFromBlobFunctionDeployHandler() {
+        this(new BlockBlobUploader());
+    }
+
+    public RunFromBlobFunctionDeployHandler(final BlockBlobUploader uploader) {
+        this.uploader = uploader;
+    }
+
     @Override
     public void deploy(File file, WebAppBase target) {
         final CloudStorageAccount storageAccount = DeployUtils.getCloudStorageAccount(target);
@@ -48,7 +59,7 @@ public class RunFromBlobFunctionDeployHandler implements IFunctionDeployHandler
         final CloudBlobContainer container = getOrCreateArtifactContainer(storageAccount);
         final String blobName = getBlobName(deployTarget, zipPackage);
         final CloudBlockBlob blob = AzureStorageHelper.uploadFileAsBlob(zipPackage, storageAccount,
-                container.getName(), blobName, BlobContainerPublicAccessType.OFF);
+                container.getName(), blobName, BlobContainerPublicAccessType.OFF, uploader);
         AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, deployTarget.defaultHostname()));
         return blob;
     }
@@ -4,25 +4,54 @@
  */
 package com.microsoft.azure.toolkit.lib.appservice.service.impl.deploy;
 
+import com.azure.resourcemanager.appservice.models.FunctionDeploymentSlot;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.appservice.AzureAppService;
+import com.microsoft.azure.toolkit.lib.appservice.manager.KuduReadinessProbe;
+import lombok.extern.log4j.Log4j2;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.Optional;
 
+@Log4j2
 public class RunFromZipFunctionDeployHandler extends ZIPFunctionDeployHandler {
     private static final String APP_SETTING_WEBSITE_RUN_FROM_PACKAGE = "WEBSITE_RUN_FROM_PACKAGE";
     private static final String RUN_FROM_PACKAGE_VALUE = "1";
 
+    @Nullable
+    private final KuduReadinessProbe readinessProbe;
+
+    /**
+     * readiness probe will be created for the app to deploy, see {@link #getDefaultReadinessProbe(WebAppBase)}
+     */
+    public RunFromZipFunctionDeployHandler() {
+        this.readinessProbe = null;
+    }
+
+    public RunFromZipFunctionDeployHandler(@Nonnull final KuduReadinessProbe readinessProbe) {
+        this.readinessProbe = readinessProbe;
+    }
+
     @Override
     public void deploy(File file, WebAppBase functionApp) {
         DeployUtils.updateFunctionAppSetting(functionApp, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, RUN_FROM_PACKAGE_VALUE);
-        // todo: Check status from kudu api, refers https://github.com/Azure/azure-functions-core-tools/blob/dev/src/Azure.Functions.Cli/
-        //  Actions/AzureActions/PublishFunctionAppAction.cs#L515
-        try {
-            // work around for issue https://dev.azure.com/msazure/Unified%20Platform%20KPIs/_workitems/edit/7481871
-            Thread.sleep(20 * 1000);
-        } catch (InterruptedException e) {
-            // Sorrow exception here as we just wait for 20s for kudu app settings update, which is not required in normal cases
+        // work around for issue https://dev.azure.com/msazure/Unified%20Platform%20KPIs/_workitems/edit/7481871
+        // refers https://github.com/Azure/azure-functions-core-tools/blob/dev/src/Azure.Functions.Cli/Actions/AzureActions/PublishFunctionAppAction.cs#L515
+        final KuduReadinessProbe probe = Optional.ofNullable(readinessProbe).orElseGet(() -> getDefaultReadinessProbe(functionApp));
+        if (!probe.waitForAppSetting(APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, RUN_FROM_PACKAGE_VALUE)) {
+            log.warn("App setting {} may not be propagated to kudu yet, deploying anyway", APP_SETTING_WEBSITE_RUN_FROM_PACKAGE);
         }
         super.deploy(file, functionApp);
     }
+
+    private static KuduReadinessProbe getDefaultReadinessProbe(@Nonnull final WebAppBase functionApp) {
+        final AzureAppService az = Azure.az(AzureAppService.class);
+        if (functionApp instanceof FunctionDeploymentSlot) {
+            return az.functionApp(((FunctionDeploymentSlot) functionApp).parent().id()).deploymentSlot(functionApp.name()).getReadinessProbe();
+        }
+        return az.functionApp(functionApp.id()).getReadinessProbe();
+    }
 }
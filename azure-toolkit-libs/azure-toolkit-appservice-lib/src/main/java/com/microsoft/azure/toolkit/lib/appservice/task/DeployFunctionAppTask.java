@@ -9,17 +9,20 @@ import com.microsoft.azure.functions.annotation.AuthorizationLevel;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.appservice.AzureAppService;
 import com.microsoft.azure.toolkit.lib.appservice.entity.FunctionEntity;
+import com.microsoft.azure.toolkit.lib.appservice.manager.KuduReadinessProbe;
 import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 import com.microsoft.azure.toolkit.lib.appservice.service.IFunctionAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.service.impl.FunctionApp;
+import com.microsoft.azure.toolkit.lib.appservice.service.impl.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.utils.ZipPackager;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.zeroturnaround.zip.ZipUtil;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
@@ -79,22 +82,35 @@ public class DeployFunctionAppTask extends AzureTask<IFunctionAppBase<?>> {
             AzureMessager.getMessager().info(SKIP_DEPLOYMENT_FOR_DOCKER_APP_SERVICE);
             return target;
         }
+        final FunctionDeployType type = Optional.ofNullable(deployType)
+                .orElseGet(() -> target instanceof FunctionAppBase ? ((FunctionAppBase<?, ?>) target).getDefaultDeployType() : null);
+        // record the latest kudu deployment, so that the one created by this deployment can be told apart
+        final String previousDeploymentId = target instanceof FunctionApp && isRecordedByKudu(type) ?
+                ((FunctionApp) target).getReadinessProbe().getLatestDeploymentId() : null;
+        // otherwise, the functions host is expected to be restarted after this moment
+        final long deployStartTime = System.currentTimeMillis();
         deployArtifact();
         if (target instanceof FunctionApp) {
-            listHTTPTriggerUrls((FunctionApp) target);
+            listHTTPTriggerUrls((FunctionApp) target, type, previousDeploymentId, deployStartTime);
         }
         return target;
     }
 
+    private static boolean isRecordedByKudu(@Nullable final FunctionDeployType type) {
+        return type == FunctionDeployType.ZIP || type == FunctionDeployType.RUN_FROM_ZIP;
+    }
+
     private void deployArtifact() {
         AzureMessager.getMessager().info(DEPLOY_START);
         // For ftp deploy, we need to upload entire staging directory not the zipped package
         final File file = deployType == FunctionDeployType.FTP ? stagingDirectory : packageStagingDirectory();
         final long startTime = System.currentTimeMillis();
-        if (deployType == null) {
-            target.deploy(file);
-        } else {
-            target.deploy(file, deployType);
+        try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.UPLOAD)) {
+            if (deployType == null) {
+                target.deploy(file);
+            } else {
+                target.deploy(file, deployType);
+            }
         }
         AzureTelemetry.getActionContext().setProperty("deploy-cost", String.valueOf(System.currentTimeMillis() - startTime));
         if (!StringUtils.equalsIgnoreCase(target.state(), RUNNING)) {
@@ -104,19 +120,22 @@ public class DeployFunctionAppTask extends AzureTask<IFunctionAppBase<?>> {
     }
 
     private File packageStagingDirectory() {
-        try {
+        try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.PACKAGING)) {
             final File zipFile = Files.createTempFile("azure-functions", ".zip").toFile();
-            ZipUtil.pack(stagingDirectory, zipFile);
-            ZipUtil.removeEntry(zipFile, LOCAL_SETTINGS_FILE);
-            return zipFile;
+            final ZipPackager packager = new ZipPackager(stagingDirectory).exclude(LOCAL_SETTINGS_FILE::equals);
+            // package is mounted as is when running from package, so timestamps of entries are not needed
+            if (deployType == FunctionDeployType.RUN_FROM_ZIP || deployType == FunctionDeployType.RUN_FROM_BLOB) {
+                packager.reproducible();
+            }
+            return packager.packTo(zipFile);
         } catch (IOException e) {
             throw new AzureToolkitRuntimeException("Failed to package function to deploy", e);
         }
     }
 
-    private void listHTTPTriggerUrls(FunctionApp target) {
+    private void listHTTPTriggerUrls(FunctionApp target, @Nullable FunctionDeployType type, @Nullable String previousDeploymentId, long deployStartTime) {
         try {
-            syncTriggers(target);
+            syncTriggers(target, type, previousDeploymentId, deployStartTime);
             final List<FunctionEntity> triggers = listFunctions(target);
             final List<FunctionEntity> httpFunction = triggers.stream()
                     .filter(function -> function.getTrigger() != null &&
@@ -135,7 +154,7 @@ public class DeployFunctionAppTask extends AzureTask<IFunctionAppBase<?>> {
             if (anonymousTriggers.size() < httpFunction.size()) {
                 AzureMessager.getMessager().info(UNABLE_TO_LIST_NONE_ANONYMOUS_HTTP_TRIGGERS);
             }
-        } catch (final RuntimeException | InterruptedException e) {
+        } catch (final RuntimeException e) {
             // show warning instead of exception for list triggers
             AzureMessager.getMessager().warning(FAILED_TO_LIST_TRIGGERS);
         }
@@ -143,9 +162,16 @@ public class DeployFunctionAppTask extends AzureTask<IFunctionAppBase<?>> {
 
     // todo: move to app service library
     // Refers https://github.com/Azure/azure-functions-core-tools/blob/3.0.3568/src/Azure.Functions.Cli/Actions/AzureActions/PublishFunctionAppAction.cs#L452
-    private void syncTriggers(final FunctionApp functionApp) throws InterruptedException {
+    private void syncTriggers(final FunctionApp functionApp, @Nullable final FunctionDeployType type, @Nullable final String previousDeploymentId,
+                              final long deployStartTime) {
         AzureMessager.getMessager().info(SYNC_TRIGGERS);
-        Thread.sleep(5 * 1000);
+        // wait for the function host to pick up the new package instead of sleeping for a fixed period
+        final KuduReadinessProbe probe = functionApp.getReadinessProbe();
+        if (isRecordedByKudu(type)) {
+            probe.waitForDeployment(previousDeploymentId);
+        } else {
+            probe.waitForHostRestart(functionApp::getHostStatus, deployStartTime);
+        }
         Mono.fromRunnable(() -> {
             try {
                 Azure.az(AzureAppService.class).getAppServiceManager(functionApp.subscriptionId())
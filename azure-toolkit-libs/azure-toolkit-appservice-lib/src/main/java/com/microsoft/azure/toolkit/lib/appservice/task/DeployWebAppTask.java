@@ -5,16 +5,21 @@
 
 package com.microsoft.azure.toolkit.lib.appservice.task;
 
+import com.azure.core.util.FluxUtil;
+import com.microsoft.azure.toolkit.lib.appservice.model.DeploymentManifest;
 import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
 import com.microsoft.azure.toolkit.lib.appservice.service.IWebAppBase;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
+import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -29,9 +34,20 @@ public class DeployWebAppTask extends AzureTask<IWebAppBase<?>> {
     private static final String STOP_APP_DONE = "Successfully stopped Web App.";
     private static final String START_APP_DONE = "Successfully started Web App.";
     private static final String RUNNING = "Running";
+    private static final String SKIP_UNCHANGED_ARTIFACTS = "Skip %d unchanged artifact(s) which have been deployed before.";
+    private static final String NO_ARTIFACT_CHANGED = "All artifacts are up to date, skip deployment.";
+    private static final String FAILED_TO_LOAD_REMOTE_MANIFEST = "Failed to load deployment manifest from %s, all artifacts will be deployed.";
+    private static final String CLEAN_ARTIFACT_CHANGED = "Artifact %s cleans the target directory when deployed, all artifacts will be deployed.";
+    private static final String FAILED_TO_SAVE_MANIFEST = "Failed to save deployment manifest, artifacts will be fully deployed next time.";
+    private static final String REMOTE_MANIFEST_PATH = "site/deployments/azure-toolkit-deployment-manifest.json";
     private final IWebAppBase<?> webApp;
     private final List<WebAppArtifact> artifacts;
     private final boolean isStopAppDuringDeployment;
+    /**
+     * whether to deploy only artifacts that differ from the manifest stored in the app.
+     */
+    @Setter
+    private boolean incrementalDeploy;
 
     public DeployWebAppTask(IWebAppBase<?> webApp, List<WebAppArtifact> artifacts) {
         this(webApp, artifacts, false);
@@ -71,10 +87,78 @@ public class DeployWebAppTask extends AzureTask<IWebAppBase<?>> {
         final List<WebAppArtifact> artifactsOneDeploy = this.artifacts.stream()
             .filter(artifact -> artifact.getDeployType() != null)
             .collect(Collectors.toList());
-        artifactsOneDeploy.forEach(resource -> webApp.deploy(resource.getDeployType(), resource.getFile(), resource.getPath()));
+        try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.UPLOAD)) {
+            if (incrementalDeploy) {
+                deployArtifactsIncrementally(artifactsOneDeploy);
+            } else {
+                artifactsOneDeploy.forEach(resource -> webApp.deploy(resource.getDeployType(), resource.getFile(), resource.getPath()));
+                // overwrite the manifest, which no longer describes what is deployed, so that a later incremental deployment won't skip
+                // artifacts that are replaced by this one
+                saveRemoteManifest(DeploymentManifest.fromArtifacts(artifactsOneDeploy));
+            }
+        }
         AzureTelemetry.getActionContext().setProperty("deploy-cost", String.valueOf(System.currentTimeMillis() - startTime));
     }
 
+    private void deployArtifactsIncrementally(final List<WebAppArtifact> artifacts) {
+        final DeploymentManifest current = DeploymentManifest.fromArtifacts(artifacts);
+        final DeploymentManifest deployed = loadRemoteManifest();
+        final List<WebAppArtifact> changedArtifacts = artifacts.stream()
+            .filter(artifact -> !deployed.isUpToDate(artifact, current))
+            .collect(Collectors.toList());
+        if (changedArtifacts.isEmpty()) {
+            AzureTelemetry.getActionContext().setProperty("incremental-deploy-skipped", String.valueOf(artifacts.size()));
+            AzureMessager.getMessager().info(NO_ARTIFACT_CHANGED);
+            return;
+        }
+        // a changed artifact deployed with clean (e.g. jar/war/zip) wipes unchanged ones, so all of them have to be deployed again
+        final WebAppArtifact cleanArtifact = changedArtifacts.stream()
+            .filter(artifact -> artifact.getDeployType().isCleanByDefault())
+            .findFirst().orElse(null);
+        final List<WebAppArtifact> artifactsToDeploy;
+        if (cleanArtifact != null) {
+            AzureMessager.getMessager().info(String.format(CLEAN_ARTIFACT_CHANGED, cleanArtifact.getFile().getName()));
+            artifactsToDeploy = artifacts;
+        } else {
+            artifactsToDeploy = changedArtifacts;
+            if (changedArtifacts.size() < artifacts.size()) {
+                AzureMessager.getMessager().info(String.format(SKIP_UNCHANGED_ARTIFACTS, artifacts.size() - changedArtifacts.size()));
+            }
+        }
+        AzureTelemetry.getActionContext().setProperty("incremental-deploy-skipped", String.valueOf(artifacts.size() - artifactsToDeploy.size()));
+        artifactsToDeploy.forEach(resource -> webApp.deploy(resource.getDeployType(), resource.getFile(), resource.getPath()));
+        // merge with deployed manifest, so that artifacts deployed by other runs (e.g. other modules) are kept,
+        // unless they may have been wiped by the clean deployment
+        final DeploymentManifest manifest = cleanArtifact != null ? current : deployed;
+        manifest.getDigests().putAll(current.getDigests());
+        saveRemoteManifest(manifest);
+    }
+
+    private void saveRemoteManifest(final DeploymentManifest manifest) {
+        try {
+            webApp.uploadFileToPath(manifest.toJson(), REMOTE_MANIFEST_PATH);
+        } catch (RuntimeException e) {
+            // the outdated manifest must not be left behind, or unchanged artifacts may be skipped though they are replaced
+            try {
+                webApp.deleteFile(REMOTE_MANIFEST_PATH);
+            } catch (RuntimeException ignored) {
+                // manifest may not exist
+            }
+            AzureMessager.getMessager().warning(FAILED_TO_SAVE_MANIFEST);
+        }
+    }
+
+    private DeploymentManifest loadRemoteManifest() {
+        try {
+            final byte[] content = FluxUtil.collectBytesInByteBufferStream(webApp.getFileContent(REMOTE_MANIFEST_PATH)).block();
+            return DeploymentManifest.fromJson(content == null ? null : new String(content, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            // manifest doesn't exist for the first incremental deployment
+            AzureMessager.getMessager().info(String.format(FAILED_TO_LOAD_REMOTE_MANIFEST, webApp.name()));
+            return new DeploymentManifest();
+        }
+    }
+
     private static void stopAppService(IWebAppBase<?> target) {
         AzureMessager.getMessager().info(STOP_APP);
         target.stop();
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FileUtils;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Stage files (e.g. dependency jars) into a directory incrementally: files whose size and modification time already
+ * match the staged ones are skipped, others are hard linked to the source when the file system supports it, and
+ * copied with attributes otherwise.
+ */
+@Log4j2
+public class FileStager {
+    private boolean linkSupported = true;
+
+    /**
+     * Make the directory contain exactly the given files, stale files in the directory will be removed.
+     *
+     * @return number of files which are actually linked or copied
+     */
+    public int syncDirectory(@Nonnull final Collection<File> files, @Nonnull final File directory) throws IOException {
+        final Map<String, File> targets = new LinkedHashMap<>();
+        files.forEach(file -> targets.put(file.getName(), file));
+        final File[] existingFiles = directory.listFiles();
+        if (existingFiles != null) {
+            for (final File existing : existingFiles) {
+                if (!targets.containsKey(existing.getName()) || !existing.isFile()) {
+                    FileUtils.forceDelete(existing);
+                }
+            }
+        }
+        int staged = 0;
+        for (final File file : targets.values()) {
+            staged += stageFile(file, directory) ? 1 : 0;
+        }
+        return staged;
+    }
+
+    /**
+     * Stage the file into the directory with the same name.
+     *
+     * @return false if the staged file is already up to date
+     */
+    public boolean stageFile(@Nonnull final File file, @Nonnull final File directory) throws IOException {
+        final Path source = file.toPath();
+        final Path target = directory.toPath().resolve(file.getName());
+        if (isUpToDate(source, target)) {
+            return false;
+        }
+        Files.createDirectories(directory.toPath());
+        Files.deleteIfExists(target);
+        if (linkSupported) {
+            try {
+                Files.createLink(target, source);
+                return true;
+            } catch (IOException | UnsupportedOperationException | SecurityException e) {
+                // e.g. source and target are on different volumes, fall back to copy for all the following files
+                log.debug(String.format("Failed to create hard link for %s, fall back to copy", file.getAbsolutePath()), e);
+                linkSupported = false;
+            }
+        }
+        // attributes are kept so that the copied file could be recognized as up to date next time
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        return true;
+    }
+
+    private static boolean isUpToDate(final Path source, final Path target) throws IOException {
+        return Files.isRegularFile(target) &&
+            Files.size(source) == Files.size(target) &&
+            Objects.equals(Files.getLastModifiedTime(source), Files.getLastModifiedTime(target));
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.ByteArrayOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Package a directory into a zip archive in one pass: excluded entries are filtered while writing (rather than
+ * removed from the archive afterwards), and files which are already compressed (e.g. jars) are stored as is.
+ * Entries are deflated in parallel on a fork join pool, a bounded window of them at a time, but always written in the
+ * order of their names, so that with {@link #reproducible()} the same directory content is always packaged into a
+ * byte-identical archive.
+ */
+public class ZipPackager {
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+        "jar", "war", "ear", "zip", "gz", "tgz", "bz2", "xz", "7z", "png", "jpg", "jpeg", "gif", "webp", "woff", "woff2"));
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // zip entries keep time in local time zone with 2 seconds precision, use the earliest safe value like maven/gradle do
+    private static final long REPRODUCIBLE_TIME = new GregorianCalendar(1980, Calendar.FEBRUARY, 1, 0, 0, 0).getTimeInMillis();
+
+    private final Path sourceDirectory;
+    private Predicate<String> excludes = path -> false;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    @Nullable
+    private Long entryTime;
+
+    public ZipPackager(@Nonnull final File sourceDirectory) {
+        this.sourceDirectory = sourceDirectory.toPath();
+    }
+
+    /**
+     * @param excludes predicate on the entry name (relative path with '/' as separator) of files to be excluded
+     */
+    public ZipPackager exclude(@Nonnull final Predicate<String> excludes) {
+        this.excludes = this.excludes.or(excludes);
+        return this;
+    }
+
+    /**
+     * @param parallelism max number of entries to be compressed concurrently
+     */
+    public ZipPackager parallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * Use a fixed modification time for all entries instead of the one of files, so that the archive only depends on
+     * the names and content of the files. Don't use it if the archive will be extracted and synced by timestamps.
+     */
+    public ZipPackager reproducible() {
+        this.entryTime = REPRODUCIBLE_TIME;
+        return this;
+    }
+
+    public File packTo(@Nonnull final File zipFile) throws IOException {
+        try (final OutputStream output = new BufferedOutputStream(Files.newOutputStream(zipFile.toPath()), BUFFER_SIZE)) {
+            writeTo(output);
+        }
+        return zipFile;
+    }
+
+    /**
+     * Write the archive to the given stream, the stream will not be closed.
+     */
+    public void writeTo(@Nonnull final OutputStream output) throws IOException {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final Iterator<Path> paths = listEntries().iterator();
+            // entries are prepared in a sliding window, so that at most the window of deflated entries is held in memory
+            final Deque<Future<PreparedEntry>> window = new ArrayDeque<>();
+            final int windowSize = 2 * parallelism;
+            final ZipArchiveOutputStream zip = new ZipArchiveOutputStream(output);
+            while (paths.hasNext() || !window.isEmpty()) {
+                while (paths.hasNext() && window.size() < windowSize) {
+                    final Path path = paths.next();
+                    window.addLast(pool.submit(() -> prepareEntry(path)));
+                }
+                writeEntry(zip, waitFor(window.removeFirst()));
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return files and directories to be packaged, sorted by entry name
+     */
+    protected List<Path> listEntries() throws IOException {
+        try (final Stream<Path> paths = Files.walk(sourceDirectory)) {
+            return paths.filter(path -> !path.equals(sourceDirectory))
+                .filter(path -> !excludes.test(getEntryName(path)))
+                .sorted((first, second) -> getEntryName(first).compareTo(getEntryName(second)))
+                .collect(Collectors.toList());
+        }
+    }
+
+    protected String getEntryName(@Nonnull final Path path) {
+        return FilenameUtils.separatorsToUnix(sourceDirectory.relativize(path).toString());
+    }
+
+    protected static boolean isCompressed(@Nonnull final Path file) {
+        return COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(file.getFileName().toString()).toLowerCase());
+    }
+
+    /**
+     * Compute crc and sizes of the entry, and deflate its content into memory if it should be compressed.
+     * Stored entries are not buffered but copied from the file when being written.
+     */
+    private PreparedEntry prepareEntry(final Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            final ZipArchiveEntry entry = createEntry(path, getEntryName(path) + "/", ZipEntry.STORED);
+            entry.setSize(0);
+            entry.setCompressedSize(0);
+            entry.setCrc(0);
+            return new PreparedEntry(entry, path, new byte[0]);
+        }
+        final CRC32 crc = new CRC32();
+        if (isCompressed(path)) {
+            final ZipArchiveEntry entry = createEntry(path, getEntryName(path), ZipEntry.STORED);
+            try (final InputStream input = new CheckedInputStream(Files.newInputStream(path), crc)) {
+                entry.setSize(IOUtils.consume(input));
+            }
+            entry.setCompressedSize(entry.getSize());
+            entry.setCrc(crc.getValue());
+            return new PreparedEntry(entry, path, null);
+        }
+        final ZipArchiveEntry entry = createEntry(path, getEntryName(path), ZipEntry.DEFLATED);
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final InputStream input = new CheckedInputStream(Files.newInputStream(path), crc);
+             final DeflaterOutputStream output = new DeflaterOutputStream(compressed, deflater, BUFFER_SIZE)) {
+            entry.setSize(IOUtils.copyLarge(input, output));
+            output.finish();
+        } finally {
+            deflater.end();
+        }
+        entry.setCompressedSize(compressed.size());
+        entry.setCrc(crc.getValue());
+        return new PreparedEntry(entry, path, compressed.toByteArray());
+    }
+
+    private ZipArchiveEntry createEntry(final Path path, final String name, final int method) throws IOException {
+        final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setMethod(method);
+        entry.setTime(entryTime != null ? entryTime : Files.getLastModifiedTime(path).toMillis());
+        return entry;
+    }
+
+    private static void writeEntry(final ZipArchiveOutputStream zip, final PreparedEntry prepared) throws IOException {
+        final byte[] data = prepared.getData();
+        try (final InputStream input = data != null ? new ByteArrayInputStream(data) : Files.newInputStream(prepared.getPath())) {
+            zip.addRawArchiveEntry(prepared.getEntry(), input);
+        }
+    }
+
+    private static PreparedEntry waitFor(final Future<PreparedEntry> entry) throws IOException {
+        try {
+            return entry.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while packaging zip archive");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class PreparedEntry {
+        private final ZipArchiveEntry entry;
+        private final Path path;
+        @Nullable
+        private final byte[] data;
+    }
+}
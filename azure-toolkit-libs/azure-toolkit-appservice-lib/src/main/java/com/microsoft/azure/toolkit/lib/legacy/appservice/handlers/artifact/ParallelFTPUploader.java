@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.appservice.handlers.artifact;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPReply;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Upload files to FTP server with a pool of authenticated connections:
+ * all target directories are created up front in one pass, files whose remote size and modification time
+ * already match the local ones are skipped, and failed files are retried one by one instead of the whole tree.
+ */
+@Log4j2
+@Getter
+public class ParallelFTPUploader {
+    public static final int DEFAULT_CONNECTIONS = 4;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final String UPLOAD_START = "Uploading %d file(s) to FTP server %s with %d connection(s)...";
+    public static final String UPLOAD_SUCCESS = "Successfully uploaded %d file(s) to FTP server %s, %d unchanged file(s) skipped.";
+    public static final String UPLOAD_FILE = "[FILE] %s --> %s";
+    public static final String UPLOAD_FILE_RETRY = "Failed to upload file %s, retrying...";
+    public static final String UPLOAD_FILE_FAILURE = "Failed to upload file %s after %d attempts";
+    private static final String MDTM_FORMAT = "yyyyMMddHHmmss";
+    // ftp servers (e.g. the one of app service) only keep the modification time in seconds
+    private static final long MODIFICATION_TIME_PRECISION = 1000;
+
+    private final String ftpServer;
+    private final String username;
+    private final String password;
+    private final int connections;
+    /**
+     * max attempts (the first one included) to upload each file
+     */
+    private final int maxAttempts;
+
+    public ParallelFTPUploader(final String ftpServer, final String username, final String password) {
+        this(ftpServer, username, password, DEFAULT_CONNECTIONS, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public ParallelFTPUploader(final String ftpServer, final String username, final String password, final int connections, final int maxAttempts) {
+        this.ftpServer = ftpServer;
+        this.username = username;
+        this.password = password;
+        this.connections = Math.max(1, connections);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Upload all the files in the source directory to the target directory, keeping the directory structure.
+     */
+    public void uploadDirectory(@Nonnull final File sourceDirectory, @Nonnull final String targetDirectory) throws AzureExecutionException {
+        final Map<File, String> files = new LinkedHashMap<>();
+        collectFiles(sourceDirectory, StringUtils.removeEnd(targetDirectory, "/"), files);
+        uploadFiles(files);
+    }
+
+    /**
+     * Upload files to FTP server
+     *
+     * @param files map from local file to the target directory of the file
+     */
+    public void uploadFiles(@Nonnull final Map<File, String> files) throws AzureExecutionException {
+        final IAzureMessager messager = AzureMessager.getMessager();
+        final List<UploadItem> items = files.entrySet().stream()
+            .map(entry -> new UploadItem(entry.getKey(), normalize(entry.getValue())))
+            .collect(Collectors.toList());
+        messager.info(String.format(UPLOAD_START, items.size(), ftpServer, connections));
+        final BlockingQueue<FTPClient> pool = new LinkedBlockingQueue<>();
+        try {
+            final FTPClient client = getFTPClient(ftpServer, username, password);
+            pool.add(client);
+            final Map<String, Map<String, FTPFile>> remoteFiles = prepareDirectories(client, items);
+            final List<UploadItem> changedItems = items.stream()
+                .filter(item -> !isUpToDate(item, remoteFiles.get(item.getTargetDirectory())))
+                .collect(Collectors.toList());
+            Flux.fromIterable(changedItems)
+                .flatMap(item -> uploadFileWithRetries(pool, item, messager), connections)
+                .then().block();
+            messager.success(String.format(UPLOAD_SUCCESS, changedItems.size(), ftpServer, items.size() - changedItems.size()));
+        } catch (IOException e) {
+            throw new AzureExecutionException(String.format("Failed to connect to FTP server %s", ftpServer), e);
+        } catch (RuntimeException e) {
+            final Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof AzureExecutionException) {
+                throw (AzureExecutionException) cause;
+            }
+            throw e;
+        } finally {
+            pool.forEach(ParallelFTPUploader::disconnectQuietly);
+        }
+    }
+
+    /**
+     * Create all the target directories (including parents) with one connection, and list the existing files of them.
+     *
+     * @return existing files of target directories, keyed by directory and then file name
+     */
+    protected Map<String, Map<String, FTPFile>> prepareDirectories(final FTPClient client, final List<UploadItem> items) throws IOException {
+        final TreeSet<String> directories = new TreeSet<>(Comparator.comparingInt((String dir) -> StringUtils.countMatches(dir, '/'))
+            .thenComparing(Comparator.naturalOrder()));
+        items.forEach(item -> {
+            String dir = item.getTargetDirectory();
+            while (StringUtils.isNotEmpty(dir) && !StringUtils.equals(dir, "/")) {
+                directories.add(dir);
+                dir = StringUtils.defaultIfEmpty(FilenameUtils.getFullPathNoEndSeparator(dir), "/");
+            }
+        });
+        final Map<String, Map<String, FTPFile>> result = new HashMap<>();
+        for (final String directory : directories) {
+            final FTPFile[] files = listDirectory(client, directory);
+            if (files == null) {
+                client.makeDirectory(directory);
+                result.put(directory, Collections.emptyMap());
+            } else {
+                result.put(directory, Arrays.stream(files).filter(Objects::nonNull).filter(FTPFile::isFile)
+                    .collect(Collectors.toMap(FTPFile::getName, file -> file, (a, b) -> a)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return files in the directory, or null if the directory doesn't exist
+     */
+    @Nullable
+    private static FTPFile[] listDirectory(final FTPClient client, final String directory) throws IOException {
+        final FTPFile[] files = client.mlistDir(directory);
+        final int replyCode = client.getReplyCode();
+        if (replyCode == FTPReply.UNRECOGNIZED_COMMAND || replyCode == FTPReply.COMMAND_NOT_IMPLEMENTED) {
+            // MLSD is not supported by the server, and modification time from LIST is not precise enough to skip files
+            return client.changeWorkingDirectory(directory) ? new FTPFile[0] : null;
+        }
+        return FTPReply.isPositiveCompletion(replyCode) ? files : null;
+    }
+
+    private static boolean isUpToDate(final UploadItem item, @Nullable final Map<String, FTPFile> remoteFiles) {
+        final FTPFile remote = remoteFiles == null ? null : remoteFiles.get(item.getFile().getName());
+        if (remote == null || remote.getTimestamp() == null) {
+            return false;
+        }
+        final long localTime = item.getFile().lastModified() / MODIFICATION_TIME_PRECISION;
+        final long remoteTime = remote.getTimestamp().getTimeInMillis() / MODIFICATION_TIME_PRECISION;
+        return remote.getSize() == item.getFile().length() && localTime == remoteTime;
+    }
+
+    private Mono<Void> uploadFileWithRetries(final BlockingQueue<FTPClient> pool, final UploadItem item, final IAzureMessager messager) {
+        return Mono.<Void>fromCallable(() -> {
+            messager.info(String.format(UPLOAD_FILE, item.getFile().getAbsolutePath(), item.getTargetPath()));
+            final FTPClient client = borrowClient(pool);
+            try {
+                uploadFile(client, item);
+                pool.add(client);
+            } catch (IOException | RuntimeException e) {
+                // connection may be broken, drop it and a new one will be created for next upload
+                disconnectQuietly(client);
+                throw e;
+            }
+            return null;
+        })
+            .doOnError(e -> messager.warning(String.format(UPLOAD_FILE_RETRY, item.getFile().getAbsolutePath())))
+            .retryWhen(Retry.max(maxAttempts - 1))
+            .onErrorMap(e -> new AzureExecutionException(String.format(UPLOAD_FILE_FAILURE, item.getFile().getAbsolutePath(), maxAttempts),
+                Exceptions.isRetryExhausted(e) ? e.getCause() : e))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    protected void uploadFile(final FTPClient client, final UploadItem item) throws IOException {
+        final String target = item.getTargetPath();
+        try (final InputStream is = new FileInputStream(item.getFile())) {
+            if (!client.storeFile(target, is) || isCommandFailed(client.getReplyCode())) {
+                throw new IOException(String.format("Failed to upload file %s: %s", item.getFile().getAbsolutePath(), client.getReplyString()));
+            }
+        }
+        // keep remote modification time in sync with local file, so that unchanged file could be skipped next time
+        final SimpleDateFormat format = new SimpleDateFormat(MDTM_FORMAT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        client.setModificationTime(target, format.format(new Date(item.getFile().lastModified())));
+    }
+
+    private FTPClient borrowClient(final BlockingQueue<FTPClient> pool) throws IOException {
+        final FTPClient client = pool.poll();
+        return client != null && client.isConnected() ? client : getFTPClient(ftpServer, username, password);
+    }
+
+    protected FTPClient getFTPClient(final String ftpServer, final String username, final String password) throws IOException {
+        final FTPClient ftpClient = new FTPClient();
+        ftpClient.connect(ftpServer);
+        if (!ftpClient.login(username, password)) {
+            disconnectQuietly(ftpClient);
+            throw new IOException(String.format("Failed to login FTP server %s: %s", ftpServer, ftpClient.getReplyString()));
+        }
+        ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
+        ftpClient.enterLocalPassiveMode();
+        return ftpClient;
+    }
+
+    private static void collectFiles(final File directory, final String targetDirectory, final Map<File, String> result) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final List<File> sorted = new ArrayList<>(Arrays.asList(files));
+        sorted.sort(Comparator.comparing(File::getName));
+        for (final File file : sorted) {
+            if (file.isFile()) {
+                result.put(file, targetDirectory);
+            } else {
+                collectFiles(file, targetDirectory + "/" + file.getName(), result);
+            }
+        }
+    }
+
+    private static String normalize(final String directory) {
+        final String result = StringUtils.removeEnd(FilenameUtils.separatorsToUnix(directory), "/");
+        return StringUtils.isEmpty(result) ? "/" : result;
+    }
+
+    private static void disconnectQuietly(final FTPClient client) {
+        try {
+            if (client.isConnected()) {
+                client.disconnect();
+            }
+        } catch (IOException e) {
+            log.debug("Failed to disconnect from FTP server", e);
+        }
+    }
+
+    private static boolean isCommandFailed(final int replyCode) {
+        return !FTPReply.isPositiveCompletion(replyCode);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    protected static class UploadItem {
+        private final File file;
+        private final String targetDirectory;
+
+        public String getTargetPath() {
+            return StringUtils.equals(targetDirectory, "/") ? "/" + file.getName() : targetDirectory + "/" + file.getName();
+        }
+    }
+}
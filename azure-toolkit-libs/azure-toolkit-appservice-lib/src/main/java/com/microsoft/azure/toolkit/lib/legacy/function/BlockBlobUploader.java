@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.function;
+
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.digest.DigestUtils;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Upload a local file as block blob: the file is split into fixed-size blocks which are memory mapped,
+ * staged concurrently (each block is retried on its own) and committed as a block list at the end.
+ * Block ids are derived from the block size, block index and digest of the block content, so blocks staged by an
+ * interrupted upload of the same content are reused instead of being uploaded again, while a changed file or block size
+ * never reuses mismatched blocks.
+ */
+@Log4j2
+@Getter
+public class BlockBlobUploader {
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    // 100 MiB is the maximum size of a single block for service version 2016-05-31 and later
+    private static final int MAX_BLOCK_SIZE = 100 * 1024 * 1024;
+    private static final int MAX_BLOCK_COUNT = 50000;
+    private static final Duration RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final String FAIL_TO_UPLOAD_BLOCK = "Fail to upload block %d of blob %s";
+    private static final String FAIL_TO_READ_FILE = "Fail to read file %s";
+    private static final String FAIL_TO_COMMIT_BLOCK_LIST = "Fail to commit block list of file %s";
+    private static final String TOO_MANY_BLOCKS = "File %s is too large to be uploaded with block size %d";
+
+    private final int blockSize;
+    private final int parallelism;
+    private final int maxRetries;
+
+    public BlockBlobUploader() {
+        this(DEFAULT_BLOCK_SIZE, DEFAULT_PARALLELISM, DEFAULT_MAX_RETRIES);
+    }
+
+    public BlockBlobUploader(int blockSize, int parallelism, int maxRetries) {
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException(String.format("block size should be in range (0, %d]", MAX_BLOCK_SIZE));
+        }
+        this.blockSize = blockSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    public void upload(@Nonnull final File file, @Nonnull final CloudBlockBlob blob) throws AzureExecutionException {
+        final long length = file.length();
+        final int blockCount = (int) ((length + blockSize - 1) / blockSize);
+        if (blockCount > MAX_BLOCK_COUNT) {
+            throw new AzureExecutionException(String.format(TOO_MANY_BLOCKS, file.getName(), blockSize));
+        }
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final List<String> blockIds = new ArrayList<>(blockCount);
+            for (int index = 0; index < blockCount; index++) {
+                blockIds.add(getBlockId(channel, index, length));
+            }
+            final Set<String> stagedBlockIds = listUncommittedBlocks(blob);
+            Flux.range(0, blockCount)
+                .filter(index -> !stagedBlockIds.contains(blockIds.get(index)))
+                .flatMap(index -> uploadBlock(channel, blob, blockIds.get(index), index, length), parallelism)
+                .then().block();
+            commitBlockList(file, blob, blockIds);
+        } catch (IOException e) {
+            throw new AzureExecutionException(String.format(FAIL_TO_READ_FILE, file.getName()), e);
+        } catch (RuntimeException e) {
+            final Throwable cause = unwrap(e);
+            if (cause instanceof AzureExecutionException) {
+                throw (AzureExecutionException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void commitBlockList(final File file, final CloudBlockBlob blob, final List<String> blockIds) throws AzureExecutionException {
+        try {
+            blob.commitBlockList(blockIds.stream().map(BlockEntry::new).collect(Collectors.toList()));
+        } catch (StorageException e) {
+            throw new AzureExecutionException(String.format(FAIL_TO_COMMIT_BLOCK_LIST, file.getName()), e);
+        }
+    }
+
+    private Mono<Void> uploadBlock(final FileChannel channel, final CloudBlockBlob blob, final String blockId, final int index, final long length) {
+        return Mono.<Void>fromCallable(() -> {
+            final MappedByteBuffer buffer = mapBlock(channel, index, length);
+            blob.uploadBlock(blockId, new ByteBufferInputStream(buffer), buffer.remaining());
+            return null;
+        })
+            .doOnError(e -> log.debug(String.format("failed to upload block %d, will retry", index), e))
+            .retryWhen(Retry.backoff(maxRetries, RETRY_MIN_BACKOFF))
+            .onErrorMap(e -> new AzureExecutionException(String.format(FAIL_TO_UPLOAD_BLOCK, index, blob.getName()), unwrap(e)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Set<String> listUncommittedBlocks(final CloudBlockBlob blob) {
+        try {
+            return blob.downloadBlockList(BlockListingFilter.UNCOMMITTED, null, null, null).stream()
+                .map(BlockEntry::getId).collect(Collectors.toSet());
+        } catch (StorageException e) {
+            // blob without any staged block doesn't exist yet, just upload all the blocks
+            log.debug("failed to list uncommitted blocks of blob, uploading all blocks", e);
+            return Collections.emptySet();
+        }
+    }
+
+    private MappedByteBuffer mapBlock(final FileChannel channel, final int index, final long length) throws IOException {
+        final long offset = (long) index * blockSize;
+        final int size = (int) Math.min(blockSize, length - offset);
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    }
+
+    private String getBlockId(final FileChannel channel, final int index, final long length) throws IOException {
+        // all block ids of a blob must have the same length (at most 64 bytes before encoding)
+        final String digest = DigestUtils.sha256Hex(new ByteBufferInputStream(mapBlock(channel, index, length))).substring(0, 32);
+        final String raw = String.format("%08x-%06d-%s", blockSize, index, digest);
+        return Base64.getEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Throwable unwrap(final Throwable e) {
+        final Throwable cause = Exceptions.unwrap(e);
+        return Exceptions.isRetryExhausted(cause) && cause.getCause() != null ? cause.getCause() : cause;
+    }
+
+    /**
+     * Markable stream over a (memory mapped) buffer, so that the storage sdk can rewind it on retries without copying.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@Nonnull final byte[] bytes, final int off, final int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(final int readLimit) {
+            buffer.mark();
+        }
+
+        @Override
+        public synchronized void reset() {
+            buffer.reset();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.function.handlers;
+
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * On-disk index of the classes declaring Azure Functions, kept for each class file (whose fingerprint is the digest
+ * of its content) and each dependency jar (whose fingerprint is its size and modification time), shared by
+ * {@link IncrementalAnnotationHandler} and the class file scanner of function projects.
+ */
+@Log4j2
+public class FunctionIndex {
+    // sorted, so that the saved index is not changed if no entry is changed
+    private final Map<String, IndexEntry> entries = new TreeMap<>();
+
+    @Nonnull
+    public static FunctionIndex load(@Nonnull final File indexFile) {
+        if (!indexFile.isFile()) {
+            return new FunctionIndex();
+        }
+        try {
+            final FunctionIndex index = JsonUtils.fromJson(FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8), FunctionIndex.class);
+            return index == null || index.entries == null ? new FunctionIndex() : index;
+        } catch (IOException | RuntimeException e) {
+            log.debug(String.format("Failed to load function index from %s, all classes will be scanned", indexFile), e);
+            return new FunctionIndex();
+        }
+    }
+
+    public void save(@Nonnull final File indexFile) {
+        try {
+            FileUtils.write(indexFile, JsonUtils.toJson(this), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.debug(String.format("Failed to save function index to %s", indexFile), e);
+        }
+    }
+
+    /**
+     * Copy the entry of the key from the previous index if its fingerprint is not changed.
+     *
+     * @return whether the entry is reused
+     */
+    public boolean reuse(@Nonnull final FunctionIndex previous, @Nonnull final String key, @Nonnull final String fingerprint) {
+        final IndexEntry entry = previous.entries.get(key);
+        if (entry != null && entry.getClasses() != null && Objects.equals(entry.getFingerprint(), fingerprint)) {
+            entries.put(key, entry);
+            return true;
+        }
+        return false;
+    }
+
+    public void put(@Nonnull final String key, @Nonnull final String fingerprint, @Nonnull final Collection<String> classes) {
+        entries.put(key, new IndexEntry(fingerprint, new ArrayList<>(classes)));
+    }
+
+    /**
+     * @return binary names of the classes declaring functions in the class file or jar of the key
+     */
+    @Nonnull
+    public List<String> getClasses(@Nonnull final String key) {
+        final IndexEntry entry = entries.get(key);
+        return entry == null ? Collections.emptyList() : Collections.unmodifiableList(entry.getClasses());
+    }
+
+    @Nonnull
+    public Set<String> getClassNames() {
+        return entries.values().stream().flatMap(entry -> entry.getClasses().stream()).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public static String getKey(@Nonnull final File directory, @Nonnull final String relativePath) {
+        return directory.getAbsolutePath() + "!/" + relativePath;
+    }
+
+    public static String getKey(@Nonnull final File jar) {
+        return jar.getAbsolutePath();
+    }
+
+    public static String getDigest(@Nonnull final byte[] content) {
+        return DigestUtils.sha256Hex(content);
+    }
+
+    public static String getFingerprint(@Nonnull final File jar) {
+        return String.format("%d:%d", jar.length(), jar.lastModified());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class IndexEntry {
+        private final String fingerprint;
+        private final List<String> classes;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.function.handlers;
+
+import com.microsoft.azure.functions.annotation.FunctionName;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Annotation handler which keeps a {@link FunctionIndex} of the classes declaring Azure Functions, so that only changed
+ * class files and jars are scanned again; classes of unchanged ones are loaded directly from the index.
+ */
+@Log4j2
+public class IncrementalAnnotationHandler extends AnnotationHandlerImpl {
+    private static final String CLASS_EXTENSION = "class";
+
+    private final File indexFile;
+
+    public IncrementalAnnotationHandler(@Nonnull final File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    @Override
+    public Set<Method> findFunctions(final List<URL> urls) {
+        final ClassLoader classLoader = getClassLoader(urls);
+        final FunctionIndex previous = FunctionIndex.load(indexFile);
+        final FunctionIndex current = new FunctionIndex();
+        for (final URL url : urls) {
+            final File file = FileUtils.toFile(url);
+            if (file == null || !file.exists()) {
+                continue;
+            }
+            if (file.isDirectory()) {
+                indexDirectory(file, url, classLoader, previous, current);
+            } else {
+                indexJar(file, url, classLoader, previous, current);
+            }
+        }
+        final Set<Method> result = new HashSet<>();
+        for (final String className : current.getClassNames()) {
+            result.addAll(getFunctionMethods(className, classLoader));
+        }
+        current.save(indexFile);
+        return result;
+    }
+
+    private void indexDirectory(final File directory, final URL url, final ClassLoader classLoader,
+                                final FunctionIndex previous, final FunctionIndex current) {
+        final Path root = directory.toPath();
+        final Map<String, String> changed = new TreeMap<>();
+        try (final Stream<Path> paths = Files.walk(root)) {
+            for (final Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                if (FilenameUtils.isExtension(path.toString(), CLASS_EXTENSION)) {
+                    final String relativePath = FilenameUtils.separatorsToUnix(root.relativize(path).toString());
+                    final String digest = FunctionIndex.getDigest(Files.readAllBytes(path));
+                    if (!current.reuse(previous, FunctionIndex.getKey(directory, relativePath), digest)) {
+                        changed.put(relativePath, digest);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("Failed to list class files in %s", directory), e);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        log.debug(String.format("Scanning %d changed class file(s) in %s", changed.size(), directory));
+        final Map<String, List<String>> classes = new HashMap<>();
+        for (final String className : scan(url, classLoader, changed::containsKey)) {
+            // a class file always contains exactly one class, whose binary name could be mapped back to the file
+            classes.computeIfAbsent(className.replace('.', '/') + "." + CLASS_EXTENSION, key -> new ArrayList<>()).add(className);
+        }
+        changed.forEach((relativePath, digest) -> current.put(FunctionIndex.getKey(directory, relativePath), digest,
+            classes.getOrDefault(relativePath, Collections.emptyList())));
+    }
+
+    private void indexJar(final File jar, final URL url, final ClassLoader classLoader,
+                          final FunctionIndex previous, final FunctionIndex current) {
+        final String key = FunctionIndex.getKey(jar);
+        final String fingerprint = FunctionIndex.getFingerprint(jar);
+        if (current.reuse(previous, key, fingerprint)) {
+            return;
+        }
+        log.debug(String.format("Scanning changed jar %s", jar));
+        current.put(key, fingerprint, scan(url, classLoader, path -> true));
+    }
+
+    /**
+     * @return names of classes (in the url and passing the filter) which declare functions
+     */
+    protected Set<String> scan(final URL url, final ClassLoader classLoader, final Predicate<String> filter) {
+        return new Reflections(
+            new ConfigurationBuilder()
+                .addUrls(url)
+                .filterInputsBy(filter)
+                .setScanners(Scanners.MethodsAnnotated)
+                .addClassLoaders(classLoader))
+            .getMethodsAnnotatedWith(FunctionName.class)
+            .stream()
+            .map(method -> method.getDeclaringClass().getName())
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static List<Method> getFunctionMethods(final String className, final ClassLoader classLoader) {
+        final Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            // e.g. class is removed while its index entry is not, ignore it as it will be re-indexed next time
+            log.debug(String.format("Indexed function class %s is not found", className), e);
+            return new ArrayList<>();
+        }
+        return Arrays.stream(clazz.getDeclaredMethods())
+            .filter(method -> method.isAnnotationPresent(FunctionName.class))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.function.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.AzureFunctionPackager;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionMethod;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.FunctionProject;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.legacy.function.handlers.AnnotationHandlerImplTest;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class BytecodeFunctionScannerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    /**
+     * functions with all kinds of bindings (custom ones included), and a subclass inheriting/overriding them
+     */
+    private static final List<Class<?>> FIXTURE = Arrays.asList(
+        AnnotationHandlerImplTest.FunctionEntryPoints.class,
+        AnnotationHandlerImplTest.FunctionEntryPoints.TestCustomBinding.class,
+        InheritedEntryPoints.class);
+    private static final int FUNCTIONS = 13;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class InheritedEntryPoints extends AnnotationHandlerImplTest.FunctionEntryPoints {
+        // annotations are not inherited, so overriding methods are not functions
+        @Override
+        public String httpTriggerMethod(String req) {
+            return "Hello from subclass!";
+        }
+    }
+
+    @Test
+    public void scanClassesDirectory() throws Exception {
+        final File classes = folder.newFolder("classes");
+        copyFixture(classes);
+        final FunctionProject project = createProject(classes, new ArrayList<>());
+
+        assertSameAsReflection(project);
+    }
+
+    @Test
+    public void scanDependencies() throws Exception {
+        final File fixture = folder.newFolder("fixture");
+        copyFixture(fixture);
+        final File jar = createJar(new File(folder.getRoot(), "dependency.jar"), fixture);
+        final FunctionProject project = createProject(folder.newFolder("classes"), Collections.singletonList(jar));
+
+        assertSameAsReflection(project);
+    }
+
+    @Test
+    public void scanDuplicatedClasses() throws Exception {
+        final File classes = folder.newFolder("classes");
+        copyFixture(classes);
+        final FunctionProject project = createProject(classes, Collections.singletonList(classes));
+
+        Assert.assertEquals(FUNCTIONS, project.findAnnotatedMethods().size());
+    }
+
+    @Test
+    public void scanIncrementally() throws Exception {
+        final File classes = folder.newFolder("classes");
+        copyFixture(classes);
+        final File library = folder.newFolder("library");
+        final String path = BytecodeFunctionScannerTest.class.getName().replace('.', '/') + ".class";
+        FileUtils.copyInputStreamToFile(BytecodeFunctionScannerTest.class.getClassLoader().getResourceAsStream(path), new File(library, path));
+        final File jar = createJar(new File(folder.getRoot(), "library.jar"), library);
+        final List<File> roots = Arrays.asList(classes, jar);
+        final List<URL> classpath = Collections.singletonList(classes.toURI().toURL());
+        final File indexFile = new File(folder.getRoot(), "index.json");
+        final FunctionProject project = createProject(classes, new ArrayList<>());
+
+        final List<FunctionMethod> expected = new BytecodeFunctionScanner(indexFile).scan(roots, classpath);
+        Assert.assertEquals(FUNCTIONS, expected.size());
+        Assert.assertTrue(indexFile.isFile());
+
+        // unchanged jar declaring no function is not opened again, so it doesn't matter that it's no longer readable
+        final long lastModified = jar.lastModified();
+        FileUtils.writeByteArrayToFile(jar, new byte[(int) jar.length()]);
+        Assert.assertTrue(jar.setLastModified(lastModified));
+        Assert.assertEquals(toConfigurations(project, expected),
+            toConfigurations(project, new BytecodeFunctionScanner(indexFile).scan(roots, classpath)));
+        Assert.assertThrows(AzureToolkitRuntimeException.class, () -> new BytecodeFunctionScanner().scan(roots, classpath));
+
+        // changed jar is scanned again
+        Assert.assertTrue(jar.setLastModified(lastModified + 2000));
+        Assert.assertThrows(AzureToolkitRuntimeException.class, () -> new BytecodeFunctionScanner(indexFile).scan(roots, classpath));
+    }
+
+    private static void assertSameAsReflection(final FunctionProject project) {
+        final List<FunctionMethod> scanned = project.findAnnotatedMethods();
+        final List<FunctionMethod> reflected = ((DefaultFunctionProject) project).findAnnotatedMethodsByReflection();
+
+        Assert.assertEquals(FUNCTIONS, scanned.size());
+        Assert.assertEquals(toConfigurations(project, reflected), toConfigurations(project, scanned));
+    }
+
+    private static FunctionProject createProject(final File classes, final List<File> dependencies) {
+        final FunctionProject project = new DefaultFunctionProject();
+        project.setClassesOutputDirectory(classes);
+        project.setDependencies(dependencies);
+        project.setArtifactFile(new File("function.jar"));
+        return project;
+    }
+
+    private static File createJar(final File jar, final File directory) throws IOException {
+        try (final ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (final File file : FileUtils.listFiles(directory, new String[]{"class"}, true)) {
+                output.putNextEntry(new ZipEntry(directory.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/')));
+                output.write(FileUtils.readFileToByteArray(file));
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void copyFixture(final File directory) throws IOException {
+        for (final Class<?> clazz : FIXTURE) {
+            final String path = clazz.getName().replace('.', '/') + ".class";
+            try (final InputStream input = BytecodeFunctionScannerTest.class.getClassLoader().getResourceAsStream(path)) {
+                FileUtils.writeByteArrayToFile(new File(directory, path), IOUtils.toByteArray(input));
+            }
+        }
+    }
+
+    private static Map<String, JsonNode> toConfigurations(final FunctionProject project, final List<FunctionMethod> methods) {
+        return methods.stream().collect(Collectors.toMap(FunctionMethod::toString,
+            method -> MAPPER.valueToTree(AzureFunctionPackager.getInstance().generateConfiguration(project, method))));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.manager;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KuduReadinessProbeTest {
+    private final AppServiceKuduManager kuduManager = mock(AppServiceKuduManager.class);
+    private final KuduReadinessProbe probe = new KuduReadinessProbe(kuduManager, Duration.ofMillis(10), Duration.ofMillis(20), Duration.ofSeconds(2));
+
+    @Test
+    public void waitForAppSetting() {
+        final HttpResponseException restarting = mockException(502);
+        when(kuduManager.getAppSettings())
+                .thenThrow(restarting)
+                .thenReturn(Collections.emptyMap())
+                .thenReturn(Collections.singletonMap("WEBSITE_RUN_FROM_PACKAGE", "1"));
+        Assert.assertTrue(probe.waitForAppSetting("WEBSITE_RUN_FROM_PACKAGE", "1"));
+    }
+
+    @Test
+    public void waitForNewDeployment() {
+        when(kuduManager.getLatestDeployment())
+                .thenReturn(deployment("previous", true))
+                .thenReturn(deployment("current", false))
+                .thenReturn(deployment("current", true));
+        Assert.assertTrue(probe.waitForDeployment("previous"));
+        verify(kuduManager, times(3)).getLatestDeployment();
+    }
+
+    @Test
+    public void waitForDeploymentWithoutRecord() {
+        final KuduReadinessProbe shortProbe = new KuduReadinessProbe(kuduManager, Duration.ofMillis(10), Duration.ofMillis(20), Duration.ofMillis(200));
+        when(kuduManager.getLatestDeployment()).thenReturn(null);
+        Assert.assertFalse(shortProbe.waitForDeployment(null));
+    }
+
+    @Test
+    public void waitForHostRestart() {
+        final long since = System.currentTimeMillis();
+        final AtomicInteger count = new AtomicInteger();
+        // old host keeps running for a while after deployment, then restarts
+        Assert.assertTrue(probe.waitForHostRestart(() -> {
+            switch (count.incrementAndGet()) {
+                case 1:
+                    return hostStatus("Running", 60 * 60 * 1000L);
+                case 2:
+                    return hostStatus("Default", 0L);
+                default:
+                    return hostStatus("Running", 0L);
+            }
+        }, since));
+        Assert.assertEquals(3, count.get());
+    }
+
+    @Test
+    public void waitForHostRestartWithoutUptime() {
+        final KuduReadinessProbe shortProbe = new KuduReadinessProbe(kuduManager, Duration.ofMillis(10), Duration.ofMillis(20), Duration.ofMillis(200));
+        Assert.assertTrue(shortProbe.waitForHostRestart(() -> Collections.singletonMap("state", "Running"), System.currentTimeMillis()));
+        Assert.assertFalse(shortProbe.waitForHostRestart(() -> hostStatus("Running", 60 * 60 * 1000L), System.currentTimeMillis()));
+    }
+
+    @Test
+    public void waitUntilDeadline() {
+        final AtomicInteger count = new AtomicInteger();
+        final KuduReadinessProbe shortProbe = new KuduReadinessProbe(kuduManager, Duration.ofMillis(10), Duration.ofMillis(20), Duration.ofMillis(200));
+        Assert.assertFalse(shortProbe.waitUntil(() -> count.incrementAndGet() < 0, "never"));
+        Assert.assertTrue(count.get() > 1);
+    }
+
+    @Test
+    public void waitUntilClientError() {
+        final AtomicInteger count = new AtomicInteger();
+        final HttpResponseException notFound = mockException(404);
+        Assert.assertFalse(probe.waitUntil(() -> {
+            count.incrementAndGet();
+            throw notFound;
+        }, "unavailable"));
+        Assert.assertEquals(1, count.get());
+    }
+
+    private static Map<String, Object> deployment(String id, boolean complete) {
+        final Map<String, Object> result = new HashMap<>();
+        result.put("id", id);
+        result.put("complete", complete);
+        return result;
+    }
+
+    private static HttpResponseException mockException(int statusCode) {
+        final HttpResponse response = mock(HttpResponse.class);
+        when(response.getStatusCode()).thenReturn(statusCode);
+        return new HttpResponseException("error", response);
+    }
+
+    private static Map<String, Object> hostStatus(final String state, final long processUptime) {
+        final Map<String, Object> status = new HashMap<>();
+        status.put("state", state);
+        status.put("processUptime", processUptime);
+        return status;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.microsoft.azure.toolkit.lib.appservice.entity.WebAppEntity;
+import com.microsoft.azure.toolkit.lib.appservice.model.DeployType;
+import com.microsoft.azure.toolkit.lib.appservice.model.DeploymentManifest;
+import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
+import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
+import com.microsoft.azure.toolkit.lib.appservice.service.IWebAppBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DeployWebAppTaskTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private IWebAppBase<?> webApp;
+    private WebAppArtifact war;
+    private WebAppArtifact index;
+    private List<WebAppArtifact> artifacts;
+
+    @Before
+    public void setUp() throws Exception {
+        webApp = mock(IWebAppBase.class);
+        when(webApp.getRuntime()).thenReturn(Runtime.LINUX_JAVA8_TOMCAT9);
+        when(webApp.name()).thenReturn("app");
+        doReturn(WebAppEntity.builder().name("app").build()).when(webApp).entity();
+        when(webApp.hostName()).thenReturn("app.azurewebsites.net");
+        when(webApp.state()).thenReturn("Running");
+        war = WebAppArtifact.builder().file(newFile("app.war", "war v1")).deployType(DeployType.WAR).build();
+        index = WebAppArtifact.builder().file(newFile("index.html", "static")).path("index.html").deployType(DeployType.STATIC).build();
+        artifacts = Arrays.asList(war, index);
+    }
+
+    @Test
+    public void deployChangedStaticArtifactOnly() throws Exception {
+        mockRemoteManifest(DeploymentManifest.fromArtifacts(artifacts));
+        Files.write(index.getFile().toPath(), "static v2".getBytes(StandardCharsets.UTF_8));
+
+        newIncrementalTask().execute();
+
+        verify(webApp, never()).deploy(DeployType.WAR, war.getFile(), null);
+        verify(webApp).deploy(DeployType.STATIC, index.getFile(), "index.html");
+    }
+
+    @Test
+    public void deployAllArtifactsIfCleanArtifactChanged() throws Exception {
+        mockRemoteManifest(DeploymentManifest.fromArtifacts(artifacts));
+        // the changed war cleans wwwroot, so the unchanged static file has to be deployed again
+        Files.write(war.getFile().toPath(), "war v2".getBytes(StandardCharsets.UTF_8));
+
+        newIncrementalTask().execute();
+
+        verify(webApp).deploy(DeployType.WAR, war.getFile(), null);
+        verify(webApp).deploy(DeployType.STATIC, index.getFile(), "index.html");
+        final ArgumentCaptor<String> manifest = ArgumentCaptor.forClass(String.class);
+        verify(webApp).uploadFileToPath(manifest.capture(), ArgumentMatchers.anyString());
+        Assert.assertEquals(DeploymentManifest.fromArtifacts(artifacts).getDigests(), DeploymentManifest.fromJson(manifest.getValue()).getDigests());
+    }
+
+    @Test
+    public void skipUnchangedArtifacts() throws Exception {
+        mockRemoteManifest(DeploymentManifest.fromArtifacts(artifacts));
+
+        newIncrementalTask().execute();
+
+        verify(webApp, never()).deploy(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(webApp, never()).uploadFileToPath(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void deployAgainAfterFullDeploymentOfOtherArtifacts() throws Exception {
+        mockRemoteFileSystem();
+        newIncrementalTask().execute();
+        // fully deploy another version of the war
+        final File other = new File(folder.newFolder("other"), war.getFile().getName());
+        Files.write(other.toPath(), "war v2".getBytes(StandardCharsets.UTF_8));
+        final WebAppArtifact otherWar = WebAppArtifact.builder().file(other).deployType(DeployType.WAR).build();
+        new DeployWebAppTask(webApp, Arrays.asList(otherWar, index)).execute();
+
+        newIncrementalTask().execute();
+
+        verify(webApp, times(2)).deploy(DeployType.WAR, war.getFile(), null);
+        verify(webApp).deploy(DeployType.WAR, other, null);
+    }
+
+    private DeployWebAppTask newIncrementalTask() {
+        final DeployWebAppTask task = new DeployWebAppTask(webApp, artifacts);
+        task.setIncrementalDeploy(true);
+        return task;
+    }
+
+    private void mockRemoteManifest(final DeploymentManifest manifest) {
+        final ByteBuffer content = ByteBuffer.wrap(manifest.toJson().getBytes(StandardCharsets.UTF_8));
+        when(webApp.getFileContent(ArgumentMatchers.anyString())).thenReturn(Flux.just(content));
+    }
+
+    /**
+     * files uploaded to the app can be read back
+     */
+    private void mockRemoteFileSystem() {
+        final Map<String, String> files = new ConcurrentHashMap<>();
+        doAnswer(invocation -> files.put(invocation.getArgument(1), invocation.getArgument(0)))
+            .when(webApp).uploadFileToPath(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+        when(webApp.getFileContent(ArgumentMatchers.anyString())).thenAnswer(invocation -> Optional.ofNullable(files.get(invocation.<String>getArgument(0)))
+            .map(content -> Flux.just(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8))))
+            .orElseGet(() -> Flux.error(new IllegalStateException("file not found"))));
+    }
+
+    private File newFile(final String name, final String content) throws Exception {
+        final File file = folder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
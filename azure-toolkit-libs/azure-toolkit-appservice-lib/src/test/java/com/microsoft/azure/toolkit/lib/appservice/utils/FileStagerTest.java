@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class FileStagerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File first;
+    private File second;
+    private File lib;
+
+    @Before
+    public void setUp() throws Exception {
+        final File repository = folder.newFolder("repository");
+        first = new File(repository, "a.jar");
+        second = new File(repository, "b.jar");
+        Files.write(first.toPath(), "a".getBytes(StandardCharsets.UTF_8));
+        Files.write(second.toPath(), "bb".getBytes(StandardCharsets.UTF_8));
+        lib = new File(folder.getRoot(), "staging/lib");
+    }
+
+    @Test
+    public void syncDirectory() throws Exception {
+        final FileStager stager = new FileStager();
+        Assert.assertEquals(2, stager.syncDirectory(Arrays.asList(first, second), lib));
+        Assert.assertEquals("bb", new String(Files.readAllBytes(new File(lib, "b.jar").toPath()), StandardCharsets.UTF_8));
+
+        // unchanged files are skipped
+        Assert.assertEquals(0, stager.syncDirectory(Arrays.asList(first, second), lib));
+
+        // replaced files are staged again and stale files are removed
+        Files.delete(first.toPath());
+        Files.write(first.toPath(), "aaa".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(first.toPath(), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        Assert.assertEquals(1, stager.syncDirectory(Collections.singletonList(first), lib));
+        Assert.assertEquals("aaa", new String(Files.readAllBytes(new File(lib, "a.jar").toPath()), StandardCharsets.UTF_8));
+        Assert.assertFalse(new File(lib, "b.jar").exists());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class ZipPackagerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File staging;
+
+    @Before
+    public void setUp() throws Exception {
+        staging = folder.newFolder("staging");
+        Files.write(staging.toPath().resolve("host.json"), "{\"version\": \"2.0\"}".getBytes(StandardCharsets.UTF_8));
+        Files.write(staging.toPath().resolve("local.settings.json"), "{}".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(staging.toPath().resolve("lib"));
+        Files.write(staging.toPath().resolve("lib/a.jar"), "jar content".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void packTo() throws Exception {
+        final File zip = new ZipPackager(staging).exclude("local.settings.json"::equals).packTo(folder.newFile("package.zip"));
+
+        try (final ZipFile zipFile = new ZipFile(zip)) {
+            Assert.assertNull(zipFile.getEntry("local.settings.json"));
+            final ZipEntry host = zipFile.getEntry("host.json");
+            Assert.assertEquals(ZipEntry.DEFLATED, host.getMethod());
+            Assert.assertEquals("{\"version\": \"2.0\"}", IOUtils.toString(zipFile.getInputStream(host), StandardCharsets.UTF_8));
+            final ZipEntry jar = zipFile.getEntry("lib/a.jar");
+            Assert.assertEquals(ZipEntry.STORED, jar.getMethod());
+            Assert.assertEquals("jar content", IOUtils.toString(zipFile.getInputStream(jar), StandardCharsets.UTF_8));
+            Assert.assertNotNull(zipFile.getEntry("lib/"));
+        }
+    }
+
+    @Test
+    public void packToReproducible() throws Exception {
+        final File first = new ZipPackager(staging).reproducible().parallelism(4).packTo(folder.newFile("first.zip"));
+        Files.setLastModifiedTime(staging.toPath().resolve("host.json"), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        final File second = new ZipPackager(staging).reproducible().parallelism(1).packTo(folder.newFile("second.zip"));
+
+        Assert.assertArrayEquals(Files.readAllBytes(first.toPath()), Files.readAllBytes(second.toPath()));
+        try (final ZipFile zipFile = new ZipFile(first)) {
+            final List<String> names = Collections.list(zipFile.entries()).stream().map(ZipEntry::getName).collect(Collectors.toList());
+            Assert.assertEquals(names.stream().sorted().collect(Collectors.toList()), names);
+            Assert.assertEquals("jar content", IOUtils.toString(zipFile.getInputStream(zipFile.getEntry("lib/a.jar")), StandardCharsets.UTF_8));
+        }
+    }
+}
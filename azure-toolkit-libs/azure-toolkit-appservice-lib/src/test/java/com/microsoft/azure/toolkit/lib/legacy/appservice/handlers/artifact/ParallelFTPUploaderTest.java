@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.appservice.handlers.artifact;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPReply;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Calendar;
+
+public class ParallelFTPUploaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File staging;
+    private FTPClient client;
+    private ParallelFTPUploader uploader;
+
+    @Before
+    public void setUp() throws Exception {
+        staging = folder.newFolder("staging");
+        Files.write(new File(staging, "host.json").toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(staging.toPath().resolve("lib"));
+        Files.write(staging.toPath().resolve("lib/a.jar"), "a".getBytes(StandardCharsets.UTF_8));
+        Files.write(staging.toPath().resolve("lib/b.jar"), "bb".getBytes(StandardCharsets.UTF_8));
+
+        client = Mockito.mock(FTPClient.class);
+        Mockito.doReturn(true).when(client).isConnected();
+        Mockito.doReturn(FTPReply.COMMAND_OK).when(client).getReplyCode();
+        Mockito.doReturn(true).when(client).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+        uploader = Mockito.spy(new ParallelFTPUploader("ftpServer", "username", "password", 2, 2));
+        Mockito.doReturn(client).when(uploader).getFTPClient(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void uploadDirectory() throws Exception {
+        Mockito.doReturn(new FTPFile[0]).when(client).mlistDir(ArgumentMatchers.anyString());
+
+        uploader.uploadDirectory(staging, "/site/wwwroot");
+
+        Mockito.verify(client).storeFile(ArgumentMatchers.eq("/site/wwwroot/host.json"), ArgumentMatchers.any(InputStream.class));
+        Mockito.verify(client).storeFile(ArgumentMatchers.eq("/site/wwwroot/lib/a.jar"), ArgumentMatchers.any(InputStream.class));
+        Mockito.verify(client).storeFile(ArgumentMatchers.eq("/site/wwwroot/lib/b.jar"), ArgumentMatchers.any(InputStream.class));
+        Mockito.verify(client, Mockito.never()).changeWorkingDirectory(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void uploadDirectoryCreateMissingDirectories() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            final String dir = invocation.getArgument(0);
+            Mockito.doReturn(dir.endsWith("lib") ? FTPReply.FILE_UNAVAILABLE : FTPReply.COMMAND_OK).when(client).getReplyCode();
+            return new FTPFile[0];
+        }).when(client).mlistDir(ArgumentMatchers.anyString());
+        Mockito.doAnswer(invocation -> {
+            Mockito.doReturn(FTPReply.PATHNAME_CREATED).when(client).getReplyCode();
+            return true;
+        }).when(client).makeDirectory(ArgumentMatchers.anyString());
+
+        uploader.uploadDirectory(staging, "/site/wwwroot");
+
+        Mockito.verify(client, Mockito.times(1)).makeDirectory("/site/wwwroot/lib");
+        Mockito.verify(client, Mockito.never()).makeDirectory("/site/wwwroot");
+    }
+
+    @Test
+    public void uploadDirectorySkipUnchangedFiles() throws Exception {
+        final File unchanged = staging.toPath().resolve("lib/a.jar").toFile();
+        final FTPFile remote = new FTPFile();
+        remote.setName(unchanged.getName());
+        remote.setType(FTPFile.FILE_TYPE);
+        remote.setSize(unchanged.length());
+        final Calendar timestamp = Calendar.getInstance();
+        timestamp.setTimeInMillis(unchanged.lastModified());
+        remote.setTimestamp(timestamp);
+        Mockito.doReturn(new FTPFile[0]).when(client).mlistDir(ArgumentMatchers.anyString());
+        Mockito.doReturn(new FTPFile[]{remote}).when(client).mlistDir("/site/wwwroot/lib");
+
+        uploader.uploadDirectory(staging, "/site/wwwroot");
+
+        Mockito.verify(client, Mockito.never()).storeFile(ArgumentMatchers.eq("/site/wwwroot/lib/a.jar"), ArgumentMatchers.any(InputStream.class));
+        Mockito.verify(client).storeFile(ArgumentMatchers.eq("/site/wwwroot/lib/b.jar"), ArgumentMatchers.any(InputStream.class));
+    }
+
+    @Test(expected = AzureExecutionException.class)
+    public void uploadDirectoryRetryPerFile() throws Exception {
+        Mockito.doReturn(new FTPFile[0]).when(client).mlistDir(ArgumentMatchers.anyString());
+        Mockito.doReturn(false).when(client).storeFile(ArgumentMatchers.eq("/site/wwwroot/host.json"), ArgumentMatchers.any(InputStream.class));
+
+        try {
+            uploader.uploadDirectory(staging, "/site/wwwroot");
+        } finally {
+            // the failed file is retried alone, while other files are uploaded only once
+            Mockito.verify(client, Mockito.times(2)).storeFile(ArgumentMatchers.eq("/site/wwwroot/host.json"), ArgumentMatchers.any(InputStream.class));
+            Mockito.verify(client, Mockito.atMost(1)).storeFile(ArgumentMatchers.eq("/site/wwwroot/lib/a.jar"), ArgumentMatchers.any(InputStream.class));
+        }
+    }
+}
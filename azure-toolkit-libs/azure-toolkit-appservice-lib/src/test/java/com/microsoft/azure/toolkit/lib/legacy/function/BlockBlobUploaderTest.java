@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.function;
+
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class BlockBlobUploaderTest {
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private CloudBlockBlob blob;
+    // staged blocks of the stub blob, keyed by block id
+    private Map<String, byte[]> stagedBlocks;
+    private List<String> committedBlocks;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.newFile("package.zip");
+        Files.write(file.toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+        stagedBlocks = new ConcurrentHashMap<>();
+        committedBlocks = new ArrayList<>();
+        blob = Mockito.mock(CloudBlockBlob.class);
+        Mockito.doAnswer(invocation -> stageBlock(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(blob).uploadBlock(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyLong());
+        Mockito.doAnswer(invocation -> {
+            final Iterable<BlockEntry> entries = invocation.getArgument(0);
+            entries.forEach(entry -> committedBlocks.add(entry.getId()));
+            return null;
+        }).when(blob).commitBlockList(ArgumentMatchers.any());
+        Mockito.doThrow(new StorageException("BlobNotFound", "blob not found", 404, null, null))
+            .when(blob).downloadBlockList(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void upload() throws Exception {
+        new BlockBlobUploader(5, 3, 0).upload(file, blob);
+
+        Assert.assertEquals(8, committedBlocks.size());
+        Assert.assertEquals(CONTENT, getCommittedContent());
+    }
+
+    @Test
+    public void uploadWithBlockRetry() throws Exception {
+        final AtomicInteger failures = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            if (failures.getAndIncrement() == 0) {
+                throw new StorageException("InternalError", "server busy", 503, null, null);
+            }
+            return stageBlock(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(blob).uploadBlock(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyLong());
+
+        new BlockBlobUploader(16, 2, 1).upload(file, blob);
+
+        Assert.assertEquals(CONTENT, getCommittedContent());
+    }
+
+    @Test
+    public void uploadResumeStagedBlocks() throws Exception {
+        new BlockBlobUploader(10, 2, 0).upload(file, blob);
+        stageCommittedBlocksAsUncommitted();
+
+        new BlockBlobUploader(10, 2, 0).upload(file, blob);
+
+        Mockito.verify(blob, Mockito.never()).uploadBlock(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyLong());
+        Mockito.verify(blob).commitBlockList(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void uploadResumeWithDifferentBlockSize() throws Exception {
+        new BlockBlobUploader(10, 2, 0).upload(file, blob);
+        stageCommittedBlocksAsUncommitted();
+
+        new BlockBlobUploader(5, 2, 0).upload(file, blob);
+
+        Mockito.verify(blob, Mockito.times(8)).uploadBlock(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyLong());
+        Assert.assertEquals(8, committedBlocks.size());
+        Assert.assertEquals(CONTENT, getCommittedContent());
+    }
+
+    @Test
+    public void uploadResumeWithChangedContent() throws Exception {
+        new BlockBlobUploader(10, 2, 0).upload(file, blob);
+        stageCommittedBlocksAsUncommitted();
+        // change bytes of the second block only, keeping length and last modified time of the file. block ids are derived from
+        // the digest of block content, so only the changed block is uploaded again
+        final String changed = CONTENT.substring(0, 10) + "ABCDEFGHIJ" + CONTENT.substring(20);
+        final long lastModified = file.lastModified();
+        Files.write(file.toPath(), changed.getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(file.setLastModified(lastModified));
+
+        new BlockBlobUploader(10, 2, 0).upload(file, blob);
+
+        Mockito.verify(blob, Mockito.times(1)).uploadBlock(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyLong());
+        Assert.assertEquals(changed, getCommittedContent());
+    }
+
+    @Test(expected = AzureExecutionException.class)
+    public void uploadFailsAfterRetries() throws Exception {
+        Mockito.doThrow(new StorageException("InternalError", "server busy", 503, null, null))
+            .when(blob).uploadBlock(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyLong());
+
+        new BlockBlobUploader(16, 2, 0).upload(file, blob);
+    }
+
+    @Test
+    public void uploadEmptyFile() throws Exception {
+        final File empty = folder.newFile("empty.zip");
+
+        new BlockBlobUploader().upload(empty, blob);
+
+        Mockito.verify(blob, Mockito.never()).uploadBlock(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class), ArgumentMatchers.anyLong());
+        Assert.assertEquals(Collections.emptyList(), committedBlocks);
+    }
+
+    private void stageCommittedBlocksAsUncommitted() throws StorageException {
+        final List<BlockEntry> staged = committedBlocks.stream().map(BlockEntry::new).collect(Collectors.toList());
+        Mockito.doReturn(staged).when(blob).downloadBlockList(ArgumentMatchers.eq(BlockListingFilter.UNCOMMITTED),
+            ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        committedBlocks.clear();
+        Mockito.clearInvocations(blob);
+    }
+
+    private Void stageBlock(final String blockId, final InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        IOUtils.copy(input, output);
+        stagedBlocks.put(blockId, output.toByteArray());
+        return null;
+    }
+
+    private String getCommittedContent() {
+        final StringBuilder result = new StringBuilder();
+        committedBlocks.forEach(id -> result.append(new String(stagedBlocks.get(id), StandardCharsets.UTF_8)));
+        return result.toString();
+    }
+}
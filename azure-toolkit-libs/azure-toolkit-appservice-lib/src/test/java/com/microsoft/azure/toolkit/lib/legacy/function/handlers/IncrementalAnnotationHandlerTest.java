@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.legacy.function.handlers;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reflections.util.ClasspathHelper;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class IncrementalAnnotationHandlerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void findFunctions() throws Exception {
+        final List<URL> urls = Collections.singletonList(getClassUrl());
+        final File indexFile = new File(folder.getRoot(), "index.json");
+        final Set<String> expected = toNames(new AnnotationHandlerImpl().findFunctions(urls));
+
+        final AtomicInteger scans = new AtomicInteger();
+        Assert.assertEquals(expected, toNames(new CountingHandler(indexFile, scans).findFunctions(urls)));
+        Assert.assertTrue(indexFile.isFile());
+        Assert.assertTrue(scans.get() > 0);
+        final String index = FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8);
+
+        // functions of unchanged classes are resolved from the index, without scanning
+        scans.set(0);
+        Assert.assertEquals(expected, toNames(new CountingHandler(indexFile, scans).findFunctions(urls)));
+        Assert.assertEquals(0, scans.get());
+        Assert.assertEquals(index, FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void findFunctionsRescanWithoutIndex() throws Exception {
+        final List<URL> urls = Collections.singletonList(getClassUrl());
+        final File indexFile = new File(folder.getRoot(), "index.json");
+        final AtomicInteger scans = new AtomicInteger();
+        new CountingHandler(indexFile, scans).findFunctions(urls);
+        Assert.assertTrue(indexFile.delete());
+
+        scans.set(0);
+        new CountingHandler(indexFile, scans).findFunctions(urls);
+        Assert.assertTrue(scans.get() > 0);
+    }
+
+    @Test
+    public void findFunctionsWithCorruptedIndex() throws Exception {
+        final List<URL> urls = Collections.singletonList(getClassUrl());
+        final File indexFile = folder.newFile("index.json");
+        FileUtils.write(indexFile, "{not json", StandardCharsets.UTF_8);
+
+        Assert.assertEquals(toNames(new AnnotationHandlerImpl().findFunctions(urls)),
+            toNames(new IncrementalAnnotationHandler(indexFile).findFunctions(urls)));
+    }
+
+    private static class CountingHandler extends IncrementalAnnotationHandler {
+        private final AtomicInteger scans;
+
+        CountingHandler(final File indexFile, final AtomicInteger scans) {
+            super(indexFile);
+            this.scans = scans;
+        }
+
+        @Override
+        protected Set<String> scan(final URL url, final ClassLoader classLoader, final Predicate<String> filter) {
+            scans.incrementAndGet();
+            return super.scan(url, classLoader, filter);
+        }
+    }
+
+    private static Set<String> toNames(final Set<Method> methods) {
+        return methods.stream().map(Method::toGenericString).collect(Collectors.toSet());
+    }
+
+    private static URL getClassUrl() {
+        return ClasspathHelper.forPackage("com.microsoft.azure.toolkit.lib.legacy.function.handlers")
+            .iterator()
+            .next();
+    }
+}
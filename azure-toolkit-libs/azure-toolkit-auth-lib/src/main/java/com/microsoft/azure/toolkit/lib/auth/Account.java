@@ -19,6 +19,7 @@ import com.microsoft.azure.toolkit.lib.common.cache.Preloader;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.common.utils.TextUtils;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
@@ -29,7 +30,9 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -47,6 +50,14 @@ public abstract class Account implements IAccount {
 
     protected TokenCredentialManager credentialManager;
 
+    /**
+     * subscription to resolve directly on login, all subscriptions are listed lazily when required.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private String targetSubscriptionId;
+
+    private Subscription targetSubscription;
+
     public Account() {
         this.entity = new AccountEntity();
     }
@@ -101,6 +112,7 @@ public abstract class Account implements IAccount {
 
     public List<Subscription> getSubscriptions() {
         requireAuthenticated();
+        loadAllSubscriptionsIfPartial();
         return this.entity.getSubscriptions();
     }
 
@@ -115,11 +127,16 @@ public abstract class Account implements IAccount {
         if (CollectionUtils.isEmpty(selectedSubscriptionIds)) {
             throw new AzureToolkitRuntimeException("No subscriptions are selected. You must select at least one subscription.", IAccountActions.SELECT_SUBS);
         }
-        if (CollectionUtils.isEmpty(getSubscriptions())) {
+        final boolean resolved = selectedSubscriptionIds.stream()
+                .allMatch(id -> entity.getSubscriptions().stream().anyMatch(s -> StringUtils.equalsIgnoreCase(id, s.getId())));
+        if (!resolved) {
+            loadAllSubscriptionsIfPartial();
+        }
+        if (CollectionUtils.isEmpty(entity.getSubscriptions())) {
             throw new AzureToolkitRuntimeException("There are no subscriptions to select.", IAccountActions.TRY_AZURE);
         }
         if (entity.getSubscriptions().stream().anyMatch(s -> Utils.containsIgnoreCase(selectedSubscriptionIds, s.getId()))) {
-            selectSubscriptionInner(this.getSubscriptions(), selectedSubscriptionIds);
+            selectSubscriptionInner(entity.getSubscriptions(), selectedSubscriptionIds);
             AzureEventBus.emit("account.subscription_changed.account", this);
             final AzureTaskManager manager = AzureTaskManager.getInstance();
             if (Objects.nonNull(manager)) {
@@ -141,10 +158,17 @@ public abstract class Account implements IAccount {
     }
 
     protected Mono<Account> login() {
+        // timed into the report of the caller, as subscriptions are listed in threads of the login steps
+        final Mono<List<Subscription>> listSubscriptions = TimingReport.time(TimingReport.Phase.SUBSCRIPTION,
+                Mono.defer(() -> this.credentialManager.listSubscriptions(this.entity.getTenantIds())));
         Mono<Boolean> mono = loginStep1();
         return mono.flatMap(ignore -> {
-            if (this.entity.getSubscriptions() == null) {
-                return this.credentialManager.listSubscriptions(this.entity.getTenantIds())
+            if (this.entity.getSubscriptions() == null && this.targetSubscription != null) {
+                entity.setSubscriptions(new ArrayList<>(Collections.singletonList(this.targetSubscription)));
+                entity.setSelectedSubscriptionIds(Collections.singletonList(this.targetSubscription.getId()));
+                entity.setPartialSubscriptions(true);
+            } else if (this.entity.getSubscriptions() == null) {
+                return listSubscriptions
                         .map(subscriptions -> {
                             // reset tenant id again when all subscriptions
                             entity.setTenantIds(subscriptions.stream().map(Subscription::getTenantId).distinct().collect(Collectors.toList()));
@@ -165,14 +189,50 @@ public abstract class Account implements IAccount {
     }
 
     private void finishLogin() {
-        selectSubscriptionInner(getSubscriptions(), this.entity.getSelectedSubscriptionIds());
+        final List<Subscription> subscriptions = this.entity.getSubscriptions();
+        selectSubscriptionInner(subscriptions, this.entity.getSelectedSubscriptionIds());
         // select all when no subs are selected
         if (this.getSelectedSubscriptions().isEmpty()) {
-            getSubscriptions().forEach(subscription -> subscription.setSelected(true));
-            this.entity.setSelectedSubscriptionIds(getSubscriptions().stream().map(Subscription::getId).collect(Collectors.toList()));
+            subscriptions.forEach(subscription -> subscription.setSelected(true));
+            this.entity.setSelectedSubscriptionIds(subscriptions.stream().map(Subscription::getId).collect(Collectors.toList()));
         }
     }
 
+    private synchronized void loadAllSubscriptionsIfPartial() {
+        if (!this.entity.isPartialSubscriptions()) {
+            return;
+        }
+        final List<String> selected = this.getSelectedSubscriptions().stream().map(Subscription::getId).collect(Collectors.toList());
+        final List<Subscription> subscriptions;
+        try (final TimingReport.Timer ignored = TimingReport.time(TimingReport.Phase.SUBSCRIPTION)) {
+            subscriptions = credentialManager.listTenants().flatMap(credentialManager::listSubscriptions).block();
+        }
+        entity.setTenantIds(subscriptions.stream().map(Subscription::getTenantId).distinct().collect(Collectors.toList()));
+        entity.setSubscriptions(subscriptions);
+        entity.setPartialSubscriptions(false);
+        selectSubscriptionInner(subscriptions, selected);
+    }
+
+    /**
+     * restore a resolved entity (e.g. of a previous session) without checking availability or listing tenants and subscriptions,
+     * credentials are created as usual and acquire tokens lazily.
+     */
+    Mono<Account> restore(@Nonnull AccountEntity resolved) {
+        this.entity.setType(this.getAuthType());
+        this.entity.setClientId(this.getClientId());
+        this.entity.setEmail(resolved.getEmail());
+        this.entity.setEnvironment(resolved.getEnvironment());
+        this.entity.setTenantIds(resolved.getTenantIds());
+        this.entity.setSubscriptions(resolved.getSubscriptions());
+        this.entity.setSelectedSubscriptionIds(resolved.getSelectedSubscriptionIds());
+        this.entity.setPartialSubscriptions(resolved.isPartialSubscriptions());
+        return initializeTokenCredentialManager().map(ignore -> {
+            this.entity.setAvailable(true);
+            finishLogin();
+            return this;
+        });
+    }
+
     public Mono<List<Subscription>> reloadSubscriptions() {
         List<String> beforeRefreshSelectedSubsIds = this.getSelectedSubscriptions().stream().map(Subscription::getId).collect(Collectors.toList());
         return credentialManager.listTenants().flatMap(tenantIds -> this.credentialManager.listSubscriptions(tenantIds)
@@ -180,6 +240,7 @@ public abstract class Account implements IAccount {
                     // reset tenant id again when all subscriptions
                     entity.setTenantIds(subscriptions.stream().map(Subscription::getTenantId).distinct().collect(Collectors.toList()));
                     entity.setSubscriptions(subscriptions);
+                    entity.setPartialSubscriptions(false);
                     this.selectSubscription(beforeRefreshSelectedSubsIds);
                     return this.getSubscriptions();
                 }));
@@ -212,6 +273,18 @@ public abstract class Account implements IAccount {
     }
 
     private Mono<List<String>> loadTenantIdsIfAbsent(TokenCredentialManager tokenCredentialManager) {
+        if (this.entity.getSubscriptions() == null && StringUtils.isNotBlank(this.targetSubscriptionId)) {
+            // resolve the target subscription (and its tenant) only, and fall back to list all tenants if failed.
+            return tokenCredentialManager.getSubscription(this.targetSubscriptionId, this.entity.getTenantIds())
+                .doOnSuccess(subscription -> this.targetSubscription = subscription)
+                .map(subscription -> Collections.singletonList(subscription.getTenantId()))
+                .onErrorResume(e -> Mono.empty())
+                .switchIfEmpty(Mono.defer(() -> this.loadAllTenantIdsIfAbsent(tokenCredentialManager)));
+        }
+        return loadAllTenantIdsIfAbsent(tokenCredentialManager);
+    }
+
+    private Mono<List<String>> loadAllTenantIdsIfAbsent(TokenCredentialManager tokenCredentialManager) {
         if (CollectionUtils.isNotEmpty(this.entity.getTenantIds())) {
             return Mono.just(this.entity.getTenantIds());
         }
@@ -228,7 +301,7 @@ public abstract class Account implements IAccount {
         if (getAuthType() != null) {
             details.add(String.format("Auth type: %s", TextUtils.cyan(getAuthType().toString())));
         }
-        if (this.entity.isAvailable() && CollectionUtils.isNotEmpty(getSubscriptions())) {
+        if (this.entity.isAvailable() && CollectionUtils.isNotEmpty(entity.getSubscriptions())) {
             final List<Subscription> selectedSubscriptions = getSelectedSubscriptions();
             if (selectedSubscriptions != null && selectedSubscriptions.size() == 1) {
                 details.add(String.format("Default subscription: %s(%s)", TextUtils.cyan(selectedSubscriptions.get(0).getName()),
@@ -252,7 +325,10 @@ public abstract class Account implements IAccount {
 
     @Override
     public Subscription getSubscription(String subscriptionId) {
-        return getSubscriptions().stream()
+        requireAuthenticated();
+        final List<Subscription> resolved = this.entity.getSubscriptions().stream()
+                .anyMatch(s -> StringUtils.equalsIgnoreCase(subscriptionId, s.getId())) ? this.entity.getSubscriptions() : getSubscriptions();
+        return resolved.stream()
                 .filter(s -> StringUtils.equalsIgnoreCase(subscriptionId, s.getId()))
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException(String.format("Cannot find subscription with id '%s'", subscriptionId)));
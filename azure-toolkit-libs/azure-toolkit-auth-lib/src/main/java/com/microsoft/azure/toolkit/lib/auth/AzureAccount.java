@@ -37,6 +37,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -196,6 +197,13 @@ public class AzureAccount implements IAzureAccount {
     }
 
     public Mono<Account> loginAsync(@Nonnull AuthConfiguration auth, boolean enablePersistence) {
+        return loginAsync(auth, enablePersistence, null);
+    }
+
+    /**
+     * @param subscriptionId subscription to resolve directly, other subscriptions are listed lazily when required, e.g. by {@link Account#getSubscriptions()}
+     */
+    public Mono<Account> loginAsync(@Nonnull AuthConfiguration auth, boolean enablePersistence, @Nullable String subscriptionId) {
         Objects.requireNonNull(auth, "Auth configuration is required for login.");
         Objects.requireNonNull(auth.getType(), "Auth type is required for login.");
         Preconditions.checkArgument(auth.getType() != AuthType.AUTO, "Auth type 'auto' is illegal for login.");
@@ -215,19 +223,46 @@ public class AzureAccount implements IAzureAccount {
             targetAccount = accountByType.get(type).get();
         }
 
-        return loginAsync(targetAccount, enablePersistence);
+        return loginAsync(targetAccount, enablePersistence, subscriptionId);
     }
 
     public Mono<Account> loginAsync(Account targetAccount, boolean enablePersistence) {
+        return loginAsync(targetAccount, enablePersistence, null);
+    }
+
+    /**
+     * @param subscriptionId subscription to resolve directly, other subscriptions are listed lazily when required, e.g. by {@link Account#getSubscriptions()}
+     */
+    public Mono<Account> loginAsync(Account targetAccount, boolean enablePersistence, @Nullable String subscriptionId) {
         Objects.requireNonNull(targetAccount, "Please specify account to login.");
         targetAccount.setEnablePersistence(enablePersistence);
+        targetAccount.setTargetSubscriptionId(subscriptionId);
         return targetAccount.login();
     }
 
+    /**
+     * restore an account resolved by a previous login without network calls, only azure cli and service principal accounts
+     * can be restored this way since tokens of other auth types are not persisted.
+     */
+    public Mono<Account> restoreAsync(@Nonnull AuthConfiguration auth, @Nonnull AccountEntity resolved) {
+        Preconditions.checkNotNull(resolved.getEnvironment(), "Azure environment for account entity is required.");
+        Preconditions.checkNotNull(resolved.getType(), "Auth type for account entity is required.");
+        Azure.az(AzureCloud.class).set(resolved.getEnvironment());
+        final Account target;
+        if (resolved.getType() == AuthType.SERVICE_PRINCIPAL) {
+            target = new ServicePrincipalAccount(auth);
+        } else if (resolved.getType() == AuthType.AZURE_CLI) {
+            target = new AzureCliAccount();
+        } else {
+            return Mono.error(new AzureToolkitAuthenticationException(String.format("login for auth type '%s' cannot be restored.", resolved.getType())));
+        }
+        return target.restore(resolved);
+    }
+
     /**
      * see doc for: az account list-locations -o table
      */
-    @Cacheable(cacheName = "Regions", key = "$subscriptionId")
+    @Cacheable(cacheName = "Regions", key = "$subscriptionId", persistentTtlSeconds = 24 * 60 * 60)
     public List<Region> listRegions(String subscriptionId) {
         return getSubscription(subscriptionId).listLocations().stream()
                 .filter(l -> l.regionType() == RegionType.PHYSICAL) // use distinct since com.azure.core.management.Region impels equals
@@ -6,6 +6,9 @@
 package com.microsoft.azure.toolkit.lib.auth;
 
 import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
 import com.azure.core.http.policy.FixedDelay;
 import com.azure.core.http.policy.HttpPipelinePolicy;
 import com.azure.core.http.policy.RetryPolicy;
@@ -20,21 +23,29 @@ import com.microsoft.azure.toolkit.lib.common.model.Subscription;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class TokenCredentialManager implements TenantProvider, SubscriptionProvider {
     private static final ClientLogger LOGGER = new ClientLogger(TokenCredentialManager.class);
+    // e.g. Bearer authorization_uri="https://login.windows.net/{tenantId}", error="invalid_token", ...
+    private static final Pattern AUTHORIZATION_URI = Pattern.compile("authorization_uri=\"https?://[^/\"]+/([^/\"]+)\"", Pattern.CASE_INSENSITIVE);
+    private static final String SUBSCRIPTION_API_VERSION = "2020-01-01";
 
     @Setter
     @Getter
@@ -67,6 +78,27 @@ public class TokenCredentialManager implements TenantProvider, SubscriptionProvi
                         .collect(Collectors.toList()));
     }
 
+    /**
+     * resolve a subscription directly without listing all tenants and their subscriptions. if there are more than one candidate tenants,
+     * the tenant is discovered from the authentication challenge of an anonymous request to the subscription.
+     */
+    public Mono<Subscription> getSubscription(@Nonnull String subscriptionId, @Nullable List<String> tenantIds) {
+        final Mono<String> tenant = CollectionUtils.size(tenantIds) == 1 ? Mono.just(tenantIds.get(0)) : discoverTenant(subscriptionId);
+        return tenant.flatMap(tenantId -> createAzureClient(environment, tenantId).subscriptions().getByIdAsync(subscriptionId)
+                .map(s -> toSubscriptionEntity(tenantId, s)));
+    }
+
+    private Mono<String> discoverTenant(@Nonnull String subscriptionId) {
+        final String url = String.format("%s/subscriptions/%s?api-version=%s",
+                StringUtils.removeEnd(environment.getResourceManagerEndpoint(), "/"), subscriptionId, SUBSCRIPTION_API_VERSION);
+        return AzureService.getDefaultHttpClient().send(new HttpRequest(HttpMethod.GET, url)).flatMap(response -> {
+            try (HttpResponse ignored = response) {
+                final Matcher matcher = AUTHORIZATION_URI.matcher(StringUtils.defaultString(response.getHeaderValue("WWW-Authenticate")));
+                return matcher.find() ? Mono.just(matcher.group(1)) : Mono.empty();
+            }
+        });
+    }
+
     private static Mono<List<Subscription>> listSubscriptionsInTenant(ResourceManager.Authenticated client, String tenantId) {
         return client.subscriptions().listAsync()
                 .map(s -> toSubscriptionEntity(tenantId, s)).collectList().onErrorResume(ex -> {
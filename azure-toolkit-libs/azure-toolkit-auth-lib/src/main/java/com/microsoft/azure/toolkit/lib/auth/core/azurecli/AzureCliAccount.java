@@ -74,7 +74,7 @@ public class AzureCliAccount extends Account {
     }
 
     protected Mono<TokenCredentialManager> createTokenCredentialManager() {
-        return Mono.just(new AzureCliTokenCredentialManager(this.entity.getEnvironment()));
+        return Mono.just(new AzureCliTokenCredentialManager(this.entity.getEnvironment(), this.entity.getEmail()));
     }
 
     private static Subscription toSubscription(AzureCliSubscription s) {
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.core.azurecli;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.SimpleTokenCache;
+import com.azure.core.util.logging.ClientLogger;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * tokens of azure cli shared by all credentials in the process, keyed by (authority host, user, tenant, resource). a token is read from
+ * the msal token cache of azure cli if there is a valid one, {@code az account get-access-token} is executed only on cache miss.
+ * concurrent requests of the same key share one acquisition, and tokens are refreshed before expiry by {@link SimpleTokenCache}.
+ */
+final class AzureCliTokenBroker {
+    private static final ClientLogger LOGGER = new ClientLogger(AzureCliTokenBroker.class);
+    private static final String CONFIG_DIR_ENV_KEY = "AZURE_CONFIG_DIR";
+    private static final String MSAL_TOKEN_CACHE = "msal_token_cache.json"; // it's encrypted as msal_token_cache.bin on windows
+    private static final String AZURE_CLI_CLIENT_ID = "04b07795-8ddb-461a-bbee-02f9e1bf7b46"; // tokens in msal cache of azure cli are issued to it
+    // longer than the refresh offset of SimpleTokenCache, so that a token read from msal cache is not refreshed right away
+    private static final Duration MIN_REMAINING = Duration.ofMinutes(10);
+    private static final Map<String, SimpleTokenCache> caches = new ConcurrentHashMap<>();
+
+    private AzureCliTokenBroker() {
+    }
+
+    @Nonnull
+    static Mono<AccessToken> getToken(@Nonnull String authorityHost, @Nullable String user, @Nullable String tenantId, @Nonnull String resource,
+                                      @Nonnull Supplier<Mono<AccessToken>> acquirer) {
+        final File msalCache = Paths.get(StringUtils.firstNonBlank(System.getenv(CONFIG_DIR_ENV_KEY),
+            Paths.get(System.getProperty("user.home"), ".azure").toString()), MSAL_TOKEN_CACHE).toFile();
+        return getToken(msalCache, authorityHost, user, tenantId, resource, acquirer);
+    }
+
+    @Nonnull
+    static Mono<AccessToken> getToken(@Nonnull File msalCache, @Nonnull String authorityHost, @Nullable String user, @Nullable String tenantId,
+                                      @Nonnull String resource, @Nonnull Supplier<Mono<AccessToken>> acquirer) {
+        final String key = String.join("|", authorityHost, StringUtils.lowerCase(user), StringUtils.lowerCase(tenantId), resource);
+        return caches.computeIfAbsent(key, k -> new SimpleTokenCache(() -> Mono.fromCallable(() -> readMsalCache(msalCache, authorityHost, user, tenantId, resource))
+            .flatMap(cached -> cached.map(Mono::just).orElseGet(acquirer)))).getToken();
+    }
+
+    @Nonnull
+    private static Optional<AccessToken> readMsalCache(@Nonnull File file, @Nonnull String authorityHost, @Nullable String user, @Nullable String tenantId,
+                                                       @Nonnull String resource) {
+        if (StringUtils.isAnyBlank(user, tenantId) || !file.isFile()) {
+            return Optional.empty();
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            final JsonObject cache = JsonUtils.getGson().fromJson(reader, JsonObject.class);
+            final Set<String> homeAccountIds = entries(cache, "Account")
+                .filter(a -> StringUtils.equalsIgnoreCase(getString(a, "username"), user))
+                .map(a -> getString(a, "home_account_id")).filter(StringUtils::isNotBlank).collect(Collectors.toSet());
+            final String scopePrefix = StringUtils.appendIfMissing(resource, "/");
+            final long minExpiresOn = Instant.now().plus(MIN_REMAINING).getEpochSecond();
+            return entries(cache, "AccessToken")
+                .filter(t -> homeAccountIds.contains(getString(t, "home_account_id")))
+                .filter(t -> StringUtils.equalsIgnoreCase(getString(t, "environment"), authorityHost))
+                .filter(t -> StringUtils.equalsIgnoreCase(getString(t, "realm"), tenantId))
+                .filter(t -> StringUtils.equalsIgnoreCase(getString(t, "client_id"), AZURE_CLI_CLIENT_ID))
+                .filter(t -> Arrays.stream(StringUtils.split(StringUtils.defaultString(getString(t, "target")))).anyMatch(s -> s.startsWith(scopePrefix)))
+                .filter(t -> NumberUtils.toLong(getString(t, "expires_on")) > minExpiresOn)
+                .max(Comparator.comparingLong(t -> NumberUtils.toLong(getString(t, "expires_on"))))
+                .map(t -> new AccessToken(getString(t, "secret"), OffsetDateTime.ofInstant(
+                    Instant.ofEpochSecond(NumberUtils.toLong(getString(t, "expires_on"))), ZoneOffset.UTC)));
+        } catch (Exception e) {
+            // fall back to azure cli if the cache can not be read, e.g. being written by azure cli
+            LOGGER.verbose(String.format("Failed to read token from msal token cache of azure cli: %s", e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    @Nonnull
+    private static Stream<JsonObject> entries(@Nullable JsonObject cache, @Nonnull String section) {
+        return Optional.ofNullable(cache).map(c -> c.getAsJsonObject(section))
+            .map(s -> s.entrySet().stream().map(Map.Entry::getValue).filter(JsonElement::isJsonObject).map(JsonElement::getAsJsonObject))
+            .orElseGet(Stream::empty);
+    }
+
+    @Nullable
+    private static String getString(@Nonnull JsonObject entry, @Nonnull String key) {
+        final JsonElement value = entry.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+}
@@ -20,6 +20,7 @@ import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
@@ -28,16 +29,20 @@ import java.time.format.DateTimeFormatter;
 import java.util.Optional;
 
 class AzureCliTokenCredentialManager extends TokenCredentialManagerWithCache {
-    public AzureCliTokenCredentialManager(AzureEnvironment env) {
+    public AzureCliTokenCredentialManager(AzureEnvironment env, String email) {
         this.environment = env;
-        rootCredentialSupplier = () -> new AzureCliTokenCredential(null);
-        credentialSupplier = AzureCliTokenCredential::new;
+        this.email = email;
+        final String authorityHost = URI.create(Optional.ofNullable(env).orElse(AzureEnvironment.AZURE).getActiveDirectoryEndpoint()).getHost();
+        rootCredentialSupplier = () -> new AzureCliTokenCredential(authorityHost, email, null);
+        credentialSupplier = tenantId -> new AzureCliTokenCredential(authorityHost, email, tenantId);
     }
 
     @AllArgsConstructor
     static class AzureCliTokenCredential implements TokenCredential {
         private static final String CLI_GET_ACCESS_TOKEN_CMD = "az account get-access-token --resource %s %s --output json";
         private static final String CLOUD_SHELL_ENV_KEY = "ACC_CLOUD";
+        private final String authorityHost;
+        private final String email;
         private final String tenantId;
 
         @Override
@@ -49,7 +54,10 @@ class AzureCliTokenCredentialManager extends TokenCredentialManagerWithCache {
             } catch (IllegalArgumentException ex) {
                 throw new AzureToolkitAuthenticationException(String.format("Invalid scope: %s", scopes));
             }
+            return AzureCliTokenBroker.getToken(authorityHost, email, tenantId, scopes, () -> Mono.fromCallable(() -> getTokenFromAzureCli(scopes)));
+        }
 
+        private AccessToken getTokenFromAzureCli(String scopes) {
             final String azCommand = String.format(CLI_GET_ACCESS_TOKEN_CMD, scopes,
                     (StringUtils.isBlank(tenantId) || isInCloudShell()) ? "" : (" -t " + tenantId));
             JsonObject result = JsonUtils.getGson().fromJson(AzureCliUtils.executeAzureCli(azCommand), JsonObject.class);
@@ -64,7 +72,7 @@ class AzureCliTokenCredentialManager extends TokenCredentialManagerWithCache {
                     .map(value -> String.join("T", value.split(" "))).map(value -> LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
                             .atZone(ZoneId.systemDefault()).toOffsetDateTime().withOffsetSameInstant(ZoneOffset.UTC))
                     .orElse(OffsetDateTime.MAX);
-            return Mono.just(new AccessToken(accessToken, expiresDateTime));
+            return new AccessToken(accessToken, expiresDateTime);
         }
 
         boolean isInCloudShell() {
@@ -30,6 +30,11 @@ public class AccountEntity {
 
     private List<String> tenantIds;
 
+    /**
+     * true if only the target subscription is resolved on login, rather than all subscriptions.
+     */
+    private boolean partialSubscriptions;
+
     private boolean available;
 
     private Throwable lastError;
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.core.azurecli;
+
+import com.azure.core.credential.AccessToken;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class AzureCliTokenBrokerTest {
+    private static final String AUTHORITY_HOST = "login.microsoftonline.com";
+    private static final String TENANT = "72f988bf-86f1-41af-91ab-2d7cd011db47";
+    private static final String MANAGEMENT = "https://management.core.windows.net/";
+    private static final String CLI_CLIENT_ID = "04b07795-8ddb-461a-bbee-02f9e1bf7b46";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger acquisitions = new AtomicInteger();
+    // stands for "az account get-access-token"
+    private final Supplier<Mono<AccessToken>> acquirer = () -> Mono.fromCallable(() -> {
+        acquisitions.incrementAndGet();
+        return new AccessToken("acquired", OffsetDateTime.now().plusHours(1));
+    });
+
+    @Test
+    public void readMsalCache() throws IOException {
+        // tokens are shared in the process by (user, tenant, resource), so every test uses its own user
+        final String user = "valid@contoso.com";
+        final File cache = writeMsalCache(user, TENANT, MANAGEMENT + "/.default", Duration.ofHours(1));
+
+        Assert.assertEquals("cached", getToken(cache, user, TENANT, MANAGEMENT).getToken());
+        Assert.assertEquals(0, acquisitions.get());
+    }
+
+    @Test
+    public void fallbackOnExpiredToken() throws IOException {
+        final String user = "expired@contoso.com";
+        final File cache = writeMsalCache(user, TENANT, MANAGEMENT + "/.default", Duration.ofMinutes(5));
+
+        Assert.assertEquals("acquired", getToken(cache, user, TENANT, MANAGEMENT).getToken());
+        Assert.assertEquals(1, acquisitions.get());
+    }
+
+    @Test
+    public void fallbackOnMissingToken() throws IOException {
+        final String user = "missing@contoso.com";
+        Assert.assertEquals("acquired", getToken(new File(folder.getRoot(), "missing.json"), user, TENANT, MANAGEMENT).getToken());
+
+        final String other = "other@contoso.com";
+        final File cache = writeMsalCache(other, TENANT, MANAGEMENT + "/.default", Duration.ofHours(1));
+        Assert.assertEquals("acquired", getToken(cache, "another@contoso.com", TENANT, MANAGEMENT).getToken());
+        Assert.assertEquals(2, acquisitions.get());
+    }
+
+    @Test
+    public void fallbackOnOtherTenant() throws IOException {
+        final String user = "tenant@contoso.com";
+        final File cache = writeMsalCache(user, TENANT, MANAGEMENT + "/.default", Duration.ofHours(1));
+
+        Assert.assertEquals("acquired", getToken(cache, user, "00000000-0000-0000-0000-000000000000", MANAGEMENT).getToken());
+        Assert.assertEquals(1, acquisitions.get());
+    }
+
+    @Test
+    public void fallbackOnOtherResource() throws IOException {
+        final String user = "resource@contoso.com";
+        final File cache = writeMsalCache(user, TENANT, MANAGEMENT + "/.default", Duration.ofHours(1));
+
+        Assert.assertEquals("acquired", getToken(cache, user, TENANT, "https://vault.azure.net").getToken());
+        Assert.assertEquals(1, acquisitions.get());
+    }
+
+    @Test
+    public void fallbackOnCorruptedCache() throws IOException {
+        final String user = "corrupted@contoso.com";
+        final File cache = folder.newFile("msal_token_cache.json");
+        Files.write(cache.toPath(), "{\"Account\": {\"partially written".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals("acquired", getToken(cache, user, TENANT, MANAGEMENT).getToken());
+        Assert.assertEquals(1, acquisitions.get());
+    }
+
+    private AccessToken getToken(final File cache, final String user, final String tenantId, final String resource) {
+        return AzureCliTokenBroker.getToken(cache, AUTHORITY_HOST, user, tenantId, resource, acquirer).block();
+    }
+
+    /**
+     * write msal token cache of azure cli with an access token of {@code target} (space separated scopes) for {@code user} in {@code tenantId}.
+     */
+    private File writeMsalCache(final String user, final String tenantId, final String target, final Duration expiresIn) throws IOException {
+        final String homeAccountId = "uid." + tenantId;
+        final JsonObject account = new JsonObject();
+        account.addProperty("home_account_id", homeAccountId);
+        account.addProperty("environment", AUTHORITY_HOST);
+        account.addProperty("realm", tenantId);
+        account.addProperty("username", user);
+        final JsonObject token = new JsonObject();
+        token.addProperty("home_account_id", homeAccountId);
+        token.addProperty("environment", AUTHORITY_HOST);
+        token.addProperty("realm", tenantId);
+        token.addProperty("client_id", CLI_CLIENT_ID);
+        token.addProperty("target", target);
+        token.addProperty("secret", "cached");
+        token.addProperty("expires_on", String.valueOf(Instant.now().plus(expiresIn).getEpochSecond()));
+
+        final JsonObject accounts = new JsonObject();
+        accounts.add(homeAccountId + "-" + AUTHORITY_HOST + "-" + tenantId, account);
+        final JsonObject tokens = new JsonObject();
+        tokens.add(homeAccountId + "-" + AUTHORITY_HOST + "-accesstoken-" + CLI_CLIENT_ID + "-" + tenantId + "-" + target, token);
+        final JsonObject cache = new JsonObject();
+        cache.add("Account", accounts);
+        cache.add("AccessToken", tokens);
+        final File file = folder.newFile("msal_token_cache.json");
+        Files.write(file.toPath(), cache.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -6,8 +6,6 @@
 package com.microsoft.azure.toolkit.lib;
 
 import com.azure.core.http.HttpClient;
-import com.azure.core.http.ProxyOptions;
-import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
 import com.azure.core.http.policy.HttpLogDetailLevel;
 import com.azure.core.http.policy.HttpPipelinePolicy;
 import com.azure.core.management.profile.AzureProfile;
@@ -21,17 +19,13 @@ import com.microsoft.azure.toolkit.lib.common.cache.Cacheable;
 import com.microsoft.azure.toolkit.lib.common.entity.IAzureBaseResource;
 import com.microsoft.azure.toolkit.lib.common.entity.IAzureModule;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.http.HttpTransport;
 import com.microsoft.azure.toolkit.lib.common.model.Region;
 import com.microsoft.azure.toolkit.lib.common.model.Subscription;
-import io.netty.resolver.AddressResolverGroup;
-import io.netty.resolver.DefaultAddressResolverGroup;
-import io.netty.resolver.NoopAddressResolverGroup;
 import org.apache.commons.lang3.StringUtils;
 
-import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.Azure.az;
@@ -101,39 +95,7 @@ public interface AzureService<T extends IAzureBaseResource> extends IAzureModule
         IAzureModule.super.refresh();
     }
 
-    class HttpClientHolder {
-        private static HttpClient defaultHttpClient = null;
-
-        private static synchronized HttpClient createHttpClient() {
-            if (defaultHttpClient != null) {
-                return defaultHttpClient;
-            }
-
-            AddressResolverGroup resolverGroup;
-            ProxyOptions proxyOptions = null;
-            final AzureConfiguration config = Azure.az().config();
-            if (StringUtils.isNotBlank(config.getProxySource())) {
-                proxyOptions = new ProxyOptions(ProxyOptions.Type.HTTP,
-                    new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort())
-                );
-                if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
-                    proxyOptions.setCredentials(config.getProxyUsername(), config.getProxyPassword());
-                }
-                resolverGroup = NoopAddressResolverGroup.INSTANCE;
-            } else {
-                resolverGroup = DefaultAddressResolverGroup.INSTANCE;
-            }
-            reactor.netty.http.client.HttpClient nettyHttpClient =
-                reactor.netty.http.client.HttpClient.create()
-                    .resolver(resolverGroup);
-            NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(nettyHttpClient);
-            Optional.ofNullable(proxyOptions).map(proxy -> builder.proxy(proxy));
-            defaultHttpClient = builder.build();
-            return defaultHttpClient;
-        }
-    }
-
     static HttpClient getDefaultHttpClient() {
-        return HttpClientHolder.createHttpClient();
+        return HttpTransport.getHttpClient();
     }
 }
@@ -2,8 +2,8 @@ package com.microsoft.azure.toolkit.lib.common.cache;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskContext;
 import com.microsoft.azure.toolkit.lib.common.utils.aspect.ExpressionUtils;
 import com.microsoft.azure.toolkit.lib.common.utils.aspect.MethodInvocation;
 import lombok.extern.java.Log;
@@ -13,31 +13,27 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 @Aspect
 @Log
 public class CacheManager {
-    private static final CacheLoader<String, Cache<Object, Object>> loader = new CacheLoader<String, Cache<Object, Object>>() {
-        @Override
-        public Cache<Object, Object> load(@Nonnull String key) {
-            return CacheBuilder.newBuilder()
-                    .softValues()
-                    .expireAfterAccess(4, TimeUnit.HOURS) // TODO: justify
-                    .build();
-        }
-    };
-    private static final LoadingCache<String, Cache<Object, Object>> caches = CacheBuilder.newBuilder()
+    private static final Cache<String, NamedCache> caches = CacheBuilder.newBuilder()
             .softValues()
             .expireAfterAccess(4, TimeUnit.HOURS) // TODO: justify
-            .build(loader);
+            .build();
 
     @Pointcut("execution(@com.microsoft.azure.toolkit.lib.common.cache.Cacheable * *..*.*(..))")
     public void cacheable() {
@@ -63,15 +59,26 @@ public class CacheManager {
         }
         final String condition = annotation.condition();
         final boolean toUseCache = StringUtils.isBlank(condition) || ExpressionUtils.evaluate(condition, invocation, true);
-        final Cache<Object, Object> cache = caches.get(name);
+        final NamedCache namedCache = caches.get(name, () -> new NamedCache(annotation));
+        if (!namedCache.accepts(annotation)) {
+            log.severe(String.format("@Cacheable on method(%s) conflicts with policies(%s) of cache[%s], skipping cache", signature.getName(), namedCache, name));
+            return point.proceed();
+        }
+        final Cache<Object, Object> cache = namedCache.cache;
+        final boolean persistent = annotation.persistentTtlSeconds() > 0 && PersistentCache.isEnabled();
         if (toUseCache) {
             log.fine(String.format("loading data from cache[%s.%s] on method[%s]", name, key, signature.getName()));
-            return readCache(cache, key, point);
+            final Loader loader = persistent ? () -> loadPersistently(name, key, annotation, point, false) : point::proceed;
+            final Loader reloader = persistent ? () -> loadPersistently(name, key, annotation, point, true) : point::proceed;
+            return readCache(cache, key, point, loader, reloader, TimeUnit.SECONDS.toMillis(annotation.refreshAfterWriteSeconds()));
         }
         log.fine(String.format("skipping cache[%s.%s] on method[%s]", name, key, signature.getName()));
         final Object result = point.proceed();
         if (Objects.nonNull(result)) {
-            cache.put(key, Optional.of(result));
+            cache.put(key, new Entry(Optional.of(result)));
+            if (persistent) {
+                PersistentCache.put(name, key, result, annotation.persistentTtlSeconds(), annotation.persistentMaxSize());
+            }
         }
         return result;
     }
@@ -101,34 +108,128 @@ public class CacheManager {
         } else if (StringUtils.equals(CacheEvict.ALL, name)) { // invalidate all cache entries if cache name not specified
             log.fine("invalidate all caches");
             caches.invalidateAll();
+            PersistentCache.invalidateAll();
         } else {
             if (StringUtils.isBlank(key)) {
                 log.warning(String.format("key is not specified when invalidating cache[%s]", name));
             } else if (StringUtils.equals(CacheEvict.ALL, key)) { // invalidate all cache entries of named cache if only cache name is specified
                 log.fine(String.format("invalidate all entries in cache[%s]", name));
                 caches.invalidate(name);
+                PersistentCache.invalidate(name, key);
             } else { // invalidate key specified cache entry of named cache if both cache name and key are specified
                 log.fine(String.format("invalidate cache entry[%s.%s]", name, key));
-                caches.get(name).invalidate(key);
+                Optional.ofNullable(caches.getIfPresent(name)).ifPresent(cache -> cache.cache.invalidate(key));
+                PersistentCache.invalidate(name, key);
             }
         }
     }
 
-    private Object readCache(Cache<Object, Object> cache, String key, ProceedingJoinPoint point) throws Throwable {
-        final Optional<?> result = (Optional<?>) cache.get(key, () -> {
-            try {
-                log.fine(String.format("cache[%s] miss on method[%s]", key, point.getSignature().getName()));
-                return Optional.ofNullable(point.proceed());
-            } catch (final Throwable throwable) {
-                log.log(Level.FINE, String.format("error occurs on loading data into cache[%s] on method[%s]", key, point.getSignature().getName()), throwable);
-                return Optional.of(throwable);
-            }
-        });
+    private static Object loadPersistently(String name, String key, Cacheable annotation, ProceedingJoinPoint point, boolean reload) throws Throwable {
+        final MethodSignature signature = (MethodSignature) point.getSignature();
+        final Optional<Object> persisted = reload ? Optional.empty() : PersistentCache.get(name, key, signature.getMethod().getGenericReturnType());
+        if (persisted.isPresent()) {
+            log.fine(String.format("loaded data from persistent cache[%s.%s] on method[%s]", name, key, signature.getName()));
+            return persisted.get();
+        }
+        final Object result = point.proceed();
+        if (Objects.nonNull(result)) {
+            PersistentCache.put(name, key, result, annotation.persistentTtlSeconds(), annotation.persistentMaxSize());
+        }
+        return result;
+    }
+
+    private Object readCache(Cache<Object, Object> cache, String key, ProceedingJoinPoint point, Loader loader, Loader reloader,
+                             long refreshAfterWrite) throws Throwable {
+        final Entry entry = (Entry) cache.get(key, () -> new Entry(load(key, point, loader)));
+        final Optional<?> result = entry.value;
         if (result.isPresent() && result.get() instanceof Throwable) {
             cache.invalidate(key);
             throw (Throwable) result.get();
-        } else {
-            return result.orElse(null);
+        }
+        if (refreshAfterWrite > 0 && System.currentTimeMillis() - entry.writtenAt > refreshAfterWrite && entry.refreshing.compareAndSet(false, true)) {
+            // serve the stale value while reloading in background
+            log.fine(String.format("refreshing cache[%s] on method[%s]", key, point.getSignature().getName()));
+            // reload with the operation context (and thus messager) of the caller
+            Mono.fromCallable(AzureTaskContext.wrap(() -> load(key, point, reloader))).subscribeOn(Schedulers.boundedElastic()).subscribe(value -> {
+                if (value.isPresent() && value.get() instanceof Throwable) {
+                    entry.refreshing.set(false); // keep the stale value and retry refreshing on next read
+                } else {
+                    cache.asMap().replace(key, entry, new Entry(value));
+                }
+            });
+        }
+        return result.orElse(null);
+    }
+
+    private static Optional<?> load(String key, ProceedingJoinPoint point, Loader loader) {
+        try {
+            log.fine(String.format("cache[%s] miss on method[%s]", key, point.getSignature().getName()));
+            return Optional.ofNullable(loader.load());
+        } catch (final Throwable throwable) {
+            log.log(Level.FINE, String.format("error occurs on loading data into cache[%s] on method[%s]", key, point.getSignature().getName()), throwable);
+            return Optional.of(throwable);
+        }
+    }
+
+    /**
+     * @return hit/miss/load statistics of caches currently alive, keyed by cache name.
+     * statistics restart when a cache is evicted as a whole, and background refreshes are not counted as loads.
+     */
+    @Nonnull
+    public static Map<String, CacheStats> getStats() {
+        final Map<String, CacheStats> stats = new TreeMap<>();
+        caches.asMap().forEach((name, cache) -> stats.put(name, cache.cache.stats()));
+        return stats;
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Object load() throws Throwable;
+    }
+
+    /**
+     * cache of a name with the policies it's built with, which all methods sharing the name must declare.
+     */
+    private static class NamedCache {
+        private static final long EXPIRE_AFTER_ACCESS_HOURS = 4;
+
+        private final long ttlSeconds;
+        private final long maximumSize;
+        private final Cache<Object, Object> cache;
+
+        private NamedCache(Cacheable annotation) {
+            this.ttlSeconds = annotation.ttlSeconds();
+            this.maximumSize = annotation.maximumSize();
+            final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                    .softValues()
+                    .expireAfterAccess(EXPIRE_AFTER_ACCESS_HOURS, TimeUnit.HOURS)
+                    .recordStats();
+            if (this.ttlSeconds > 0) {
+                builder.expireAfterWrite(this.ttlSeconds, TimeUnit.SECONDS);
+            }
+            if (this.maximumSize > 0) {
+                builder.maximumSize(this.maximumSize);
+            }
+            this.cache = builder.build();
+        }
+
+        private boolean accepts(Cacheable annotation) {
+            return annotation.ttlSeconds() == this.ttlSeconds && annotation.maximumSize() == this.maximumSize;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ttlSeconds=%d, maximumSize=%d", ttlSeconds, maximumSize);
+        }
+    }
+
+    private static class Entry {
+        private final Optional<?> value;
+        private final long writtenAt = System.currentTimeMillis();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(Optional<?> value) {
+            this.value = value;
         }
     }
 }
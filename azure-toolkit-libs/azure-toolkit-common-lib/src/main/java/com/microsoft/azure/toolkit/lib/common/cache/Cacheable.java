@@ -42,4 +42,35 @@ public @interface Cacheable {
      * e.g. groovy expression: {@code "this.isLoading()" } {@code "this.loading" },  {@code "this.subscriptionId=='xxx'" }
      */
     String condition() default "";
+
+    /**
+     * seconds after which an entry expires since it's written, 0 (default) to never expire after write.
+     * methods sharing a cache name must declare the same policies (ttl, max size), otherwise the ones conflicting with the
+     * cache already built by another method skip the cache (with a severe log) instead of sharing it.
+     */
+    long ttlSeconds() default 0;
+
+    /**
+     * max number of entries of the cache, 0 (default) for unlimited.
+     */
+    long maximumSize() default 0;
+
+    /**
+     * seconds after which an entry is refreshed in background since it's written, 0 (default) to never refresh.
+     * the stale value keeps being served until the refresh completes, and is kept if the refresh fails.
+     */
+    long refreshAfterWriteSeconds() default 0;
+
+    /**
+     * time to live in seconds of cache entries persisted under {@code ~/.azure}, which survive process exits and are shared
+     * by later processes. 0 (default) to keep entries in memory only.
+     * only for values which could be serialized/deserialized as json by the generic return type of the method and are
+     * meaningful out of the process, e.g. not clients or resources bound to a client.
+     */
+    long persistentTtlSeconds() default 0;
+
+    /**
+     * max number of entries persisted for the cache, the least recently written ones are dropped first.
+     */
+    int persistentMaxSize() default 64;
 }
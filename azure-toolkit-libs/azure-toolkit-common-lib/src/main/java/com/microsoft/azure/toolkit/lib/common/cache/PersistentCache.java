@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.hash.Hashing;
+import lombok.extern.java.Log;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+
+/**
+ * second level of {@link CacheManager}, which persists entries of caches opted in by {@link Cacheable#persistentTtlSeconds()}
+ * under {@code ~/.azure} as json, one file per cache, so that they can be reused by later processes until expired.
+ * it's best effort: any failure is logged and treated as a cache miss.
+ */
+@Log
+final class PersistentCache {
+    /**
+     * set to {@code false} to disable the persistent cache, e.g. in CI where processes are not likely to share the home directory.
+     */
+    static final String ENABLED_PROPERTY = "azure.toolkit.cache.persistent";
+    /**
+     * directory of the cache files, {@code ~/.azure/azure-toolkit-cache} by default.
+     */
+    static final String DIR_PROPERTY = "azure.toolkit.cache.dir";
+    private static final String NAME = "name";
+    private static final String ENTRIES = "entries";
+    private static final String EXPIRES_AT = "expiresAt";
+    private static final String VALUE = "value";
+    private static final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private PersistentCache() {
+    }
+
+    static boolean isEnabled() {
+        return !StringUtils.equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY), "false");
+    }
+
+    /**
+     * @return the unexpired value of type {@code type} persisted in cache[name.key], empty if not found
+     */
+    @Nonnull
+    static synchronized Optional<Object> get(@Nonnull final String name, @Nonnull final String key, @Nonnull final Type type) {
+        final ObjectNode cache = read(name);
+        final JsonNode entry = Optional.ofNullable(cache).map(c -> c.path(ENTRIES).get(key)).orElse(null);
+        if (entry == null || entry.path(EXPIRES_AT).asLong() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(mapper.readValue(mapper.treeAsTokens(entry.get(VALUE)), mapper.constructType(type)));
+        } catch (final IOException | RuntimeException e) {
+            log.log(Level.FINE, String.format("failed to deserialize persistent cache entry[%s.%s]", name, key), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * persist {@code value} into cache[name.key] for {@code ttlSeconds}, and drop expired entries and the oldest ones beyond {@code maxSize}
+     */
+    static synchronized void put(@Nonnull final String name, @Nonnull final String key, @Nonnull final Object value, long ttlSeconds, int maxSize) {
+        final ObjectNode cache = Optional.ofNullable(read(name)).orElseGet(mapper::createObjectNode);
+        cache.put(NAME, name);
+        final ObjectNode entries = cache.with(ENTRIES);
+        final long now = System.currentTimeMillis();
+        try {
+            final ObjectNode entry = mapper.createObjectNode();
+            entry.put(EXPIRES_AT, now + ttlSeconds * 1000);
+            entry.set(VALUE, mapper.valueToTree(value));
+            entries.remove(key); // re-insert to keep entries in order of writing
+            entries.set(key, entry);
+        } catch (final RuntimeException e) {
+            log.log(Level.FINE, String.format("failed to serialize value of cache[%s.%s]", name, key), e);
+            return;
+        }
+        final List<String> toRemove = new ArrayList<>();
+        entries.fields().forEachRemaining(e -> {
+            if (e.getValue().path(EXPIRES_AT).asLong() < now) {
+                toRemove.add(e.getKey());
+            }
+        });
+        entries.remove(toRemove);
+        final Iterator<String> oldest = entries.fieldNames();
+        final List<String> overflow = new ArrayList<>();
+        for (int i = entries.size() - Math.max(maxSize, 1); i > 0 && oldest.hasNext(); i--) {
+            overflow.add(oldest.next());
+        }
+        entries.remove(overflow);
+        write(name, cache);
+    }
+
+    /**
+     * invalidate entry of key {@code key} of cache {@code name}, or all entries if key is {@link CacheEvict#ALL}
+     */
+    static synchronized void invalidate(@Nonnull final String name, @Nonnull final String key) {
+        final File file = getFile(name);
+        if (!file.exists()) {
+            return;
+        }
+        if (StringUtils.equals(CacheEvict.ALL, key)) {
+            delete(file.toPath());
+            return;
+        }
+        final ObjectNode cache = read(name);
+        if (cache != null && cache.path(ENTRIES).has(key)) {
+            ((ObjectNode) cache.get(ENTRIES)).remove(key);
+            write(name, cache);
+        }
+    }
+
+    static synchronized void invalidateAll() {
+        final File[] files = getCacheDir().toFile().listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                delete(file.toPath());
+            }
+        }
+    }
+
+    @Nullable
+    private static ObjectNode read(@Nonnull final String name) {
+        final File file = getFile(name);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final JsonNode cache = mapper.readTree(file);
+            // hash collision or corrupted file
+            return cache instanceof ObjectNode && StringUtils.equals(cache.path(NAME).asText(), name) && cache.path(ENTRIES).isObject() ?
+                (ObjectNode) cache : null;
+        } catch (final IOException e) {
+            log.log(Level.FINE, String.format("failed to read persistent cache[%s] from %s", name, file), e);
+            return null;
+        }
+    }
+
+    private static void write(@Nonnull final String name, @Nonnull final ObjectNode cache) {
+        final File file = getFile(name);
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            // write to a temp file and move it in place, so that concurrent processes never see a partial file
+            final Path temp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp");
+            try {
+                Files.write(temp, mapper.writeValueAsBytes(cache));
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (final IOException e) {
+            log.log(Level.FINE, String.format("failed to write persistent cache[%s] to %s", name, file), e);
+        }
+    }
+
+    private static void delete(@Nonnull final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            log.log(Level.FINE, String.format("failed to delete persistent cache file %s", file), e);
+        }
+    }
+
+    @Nonnull
+    static File getFile(@Nonnull final String name) {
+        return getCacheDir().resolve(Hashing.sha256().hashString(name, StandardCharsets.UTF_8) + ".json").toFile();
+    }
+
+    @Nonnull
+    private static Path getCacheDir() {
+        return Optional.ofNullable(System.getProperty(DIR_PROPERTY)).filter(StringUtils::isNotBlank).map(Paths::get)
+            .orElseGet(() -> Paths.get(System.getProperty("user.home"), ".azure", "azure-toolkit-cache"));
+    }
+}
@@ -24,6 +24,7 @@ import java.util.function.Consumer;
 public class AzureEventBus {
     @NonNls
     private static final Map<String, EventBus> buses = new ConcurrentHashMap<>();
+    private static final CoalescingEventDispatcher dispatcher = new CoalescingEventDispatcher();
 
     public static <T, E extends AzureEvent<T>> void on(@Nonnull final String type, @Nonnull EventListener<T, E> listener) {
         getBus(type).register(listener);
@@ -71,18 +72,26 @@ public class AzureEventBus {
         }));
     }
 
+    /**
+     * events emitted by this and {@link #emit(String, Object)} are coalesced per (type, source), see {@link CoalescingEventDispatcher}.
+     */
     public static void emit(@Nonnull final String type) {
-        AzureEventBus.emit(type, new SimpleEvent<>(type, null));
+        AzureEventBus.emit(type, (Object) null);
     }
 
     public static void emit(@Nonnull final String type, @Nullable final Object source) {
-        AzureEventBus.emit(type, new SimpleEvent<>(type, source));
+        dispatcher.dispatch(type, source, new SimpleEvent<>(type, source), event -> getBus(type).post(event));
     }
 
     public static <T> void emit(@Nonnull final String type, @Nonnull AzureEvent<T> event) {
         getBus(type).post(event);
     }
 
+    @Nonnull
+    public static CoalescingEventDispatcher.Stats getDispatchStats() {
+        return dispatcher.getStats();
+    }
+
     private static EventBus getBus(String eventType) {
         return buses.computeIfAbsent(eventType, (e) -> new AsyncEventBus(command -> Schedulers.boundedElastic().schedule(command)));
     }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * coalesces events of the same (type, source) emitted within a window into the latest one. unlike {@code TailingDebouncer}, the
+ * window starts from the first pending event and is not postponed by later ones, so that a busy source is still dispatched periodically.
+ * window is configured by system property {@value #WINDOW_PROPERTY} in milliseconds, {@code 0} to dispatch every event immediately.
+ */
+public final class CoalescingEventDispatcher {
+    static final String WINDOW_PROPERTY = "azure.toolkit.event.coalesce.window";
+    private static final long DEFAULT_WINDOW = 100;
+
+    private final long window = NumberUtils.toLong(System.getProperty(WINDOW_PROPERTY), DEFAULT_WINDOW);
+    private final Map<Pair<String, Object>, Pending> pendings = new ConcurrentHashMap<>();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    void dispatch(@Nonnull String type, @Nullable Object source, @Nonnull AzureEvent<?> event, @Nonnull Consumer<AzureEvent<?>> poster) {
+        if (this.window <= 0) {
+            this.dispatched.increment();
+            poster.accept(event);
+            return;
+        }
+        final Pair<String, Object> key = Pair.of(type, source);
+        final Pending created = new Pending(event);
+        final Pending pending = this.pendings.merge(key, created, (old, latest) -> {
+            old.event = latest.event;
+            return old;
+        });
+        if (pending == created) {
+            Schedulers.parallel().schedule(() -> this.flush(key, poster), this.window, TimeUnit.MILLISECONDS);
+        } else {
+            this.coalesced.increment();
+        }
+    }
+
+    private void flush(@Nonnull Pair<String, Object> key, @Nonnull Consumer<AzureEvent<?>> poster) {
+        final Pending pending = this.pendings.remove(key);
+        if (Objects.isNull(pending)) {
+            return;
+        }
+        final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pending.since);
+        this.totalLatency.add(latency);
+        this.maxLatency.accumulateAndGet(latency, Math::max);
+        this.dispatched.increment();
+        poster.accept(pending.event);
+    }
+
+    @Nonnull
+    Stats getStats() {
+        final long dispatched = this.dispatched.sum();
+        final double averageLatency = dispatched > 0 ? (double) this.totalLatency.sum() / dispatched : 0;
+        return new Stats(this.pendings.size(), dispatched, this.coalesced.sum(), averageLatency, this.maxLatency.get());
+    }
+
+    private static class Pending {
+        private final long since = System.nanoTime();
+        private volatile AzureEvent<?> event;
+
+        private Pending(@Nonnull AzureEvent<?> event) {
+            this.event = event;
+        }
+    }
+
+    /**
+     * statistics of coalesced events, latencies are in milliseconds, from the first pending event of a (type, source) till dispatched.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final int pending;
+        private final long dispatched;
+        private final long coalesced;
+        private final double averageLatency;
+        private final long maxLatency;
+    }
+}
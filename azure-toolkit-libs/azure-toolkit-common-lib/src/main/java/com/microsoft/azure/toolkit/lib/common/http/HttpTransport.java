@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.http;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.ProxyOptions;
+import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.DefaultAddressResolverGroup;
+import io.netty.resolver.NoopAddressResolverGroup;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.annotation.Nonnull;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * http transport shared by all resource managers, kudu clients and log streams, so that connections, dns resolution and ssl context
+ * (and so tls sessions) are reused across them. connections are pooled per host, and the pool is tuned by system properties:
+ * <ul>
+ *     <li>{@value #MAX_CONNECTIONS_PROPERTY}: max connections per host</li>
+ *     <li>{@value #MAX_IDLE_TIME_PROPERTY}: seconds before an idle connection is closed</li>
+ *     <li>{@value #HTTP2_PROPERTY}: {@code true} to negotiate http/2 for https hosts, which requires ALPN support of the jdk</li>
+ * </ul>
+ */
+public final class HttpTransport {
+    public static final String MAX_CONNECTIONS_PROPERTY = "azure.toolkit.http.max_connections";
+    public static final String MAX_IDLE_TIME_PROPERTY = "azure.toolkit.http.max_idle_time";
+    public static final String HTTP2_PROPERTY = "azure.toolkit.http.http2";
+    private static final long DEFAULT_MAX_IDLE_TIME = 60; // shorter than idle timeout (4 minutes) of azure load balancers
+
+    private static final LongAdder opened = new LongAdder();
+    private static final LongAdder acquired = new LongAdder();
+    private static final LongAdder released = new LongAdder();
+    private static final LongAdder closed = new LongAdder();
+    private static final ConnectionProvider provider = ConnectionProvider.builder("azure-toolkit")
+        .maxConnections(NumberUtils.toInt(System.getProperty(MAX_CONNECTIONS_PROPERTY), ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS))
+        .maxIdleTime(Duration.ofSeconds(NumberUtils.toLong(System.getProperty(MAX_IDLE_TIME_PROPERTY), DEFAULT_MAX_IDLE_TIME)))
+        .build();
+    @Getter
+    private static final reactor.netty.http.client.HttpClient nettyClient = createNettyClient();
+    private static HttpClient httpClient = null;
+
+    private HttpTransport() {
+    }
+
+    /**
+     * @return azure-core http client on the shared transport, proxy is configured by {@link AzureConfiguration} when it's first called.
+     */
+    @Nonnull
+    public static synchronized HttpClient getHttpClient() {
+        if (Objects.nonNull(httpClient)) {
+            return httpClient;
+        }
+        AddressResolverGroup<?> resolverGroup;
+        ProxyOptions proxyOptions = null;
+        final AzureConfiguration config = Azure.az().config();
+        if (StringUtils.isNotBlank(config.getProxySource())) {
+            proxyOptions = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort()));
+            if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
+                proxyOptions.setCredentials(config.getProxyUsername(), config.getProxyPassword());
+            }
+            resolverGroup = NoopAddressResolverGroup.INSTANCE;
+        } else {
+            resolverGroup = DefaultAddressResolverGroup.INSTANCE;
+        }
+        final NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(nettyClient.resolver(resolverGroup));
+        Optional.ofNullable(proxyOptions).map(builder::proxy);
+        httpClient = builder.build();
+        return httpClient;
+    }
+
+    @Nonnull
+    public static Stats getStats() {
+        return new Stats(opened.sum(), acquired.sum(), released.sum(), closed.sum());
+    }
+
+    @Nonnull
+    private static reactor.netty.http.client.HttpClient createNettyClient() {
+        final reactor.netty.http.client.HttpClient client = reactor.netty.http.client.HttpClient.create(provider)
+            .keepAlive(true)
+            .observe((connection, state) -> {
+                if (state == ConnectionObserver.State.CONNECTED) {
+                    opened.increment();
+                } else if (state == ConnectionObserver.State.ACQUIRED) {
+                    acquired.increment();
+                } else if (state == ConnectionObserver.State.RELEASED) {
+                    released.increment();
+                } else if (state == ConnectionObserver.State.DISCONNECTING) {
+                    closed.increment();
+                }
+            });
+        return BooleanUtils.toBoolean(System.getProperty(HTTP2_PROPERTY)) ? client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11) : client;
+    }
+
+    /**
+     * statistics of pooled connections, {@code opened} counts new connections (each with a tls handshake for https), and {@code acquired}
+     * counts connections acquired from the pool for reuse.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final long opened;
+        private final long acquired;
+        private final long released;
+        private final long closed;
+    }
+}
@@ -145,7 +145,7 @@ public class AzureMessage implements IAzureMessage {
     }
 
     @Nonnull
-    @Cacheable(cacheName = "message/operations", key = "${this.hashCode()}")
+    @Cacheable(cacheName = "message/operations", key = "${this.hashCode()}", maximumSize = 256) // keyed by message, which is rarely reused
     protected List<IAzureOperation> getOperations() {
         final List<IAzureOperation> contextOperations = getContextOperations();
         final List<IAzureOperation> exceptionOperations = Optional.ofNullable(this.getPayload())
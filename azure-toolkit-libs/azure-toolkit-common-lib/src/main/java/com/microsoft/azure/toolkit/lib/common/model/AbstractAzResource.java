@@ -54,6 +54,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     final AtomicLong syncTimeRef; // 0:loading, <0:invalidated
     @ToString.Include
     final AtomicReference<String> statusRef;
+    final AtomicReference<InflightLoad<Void>> reloadingRef;
 
     protected AbstractAzResource(@Nonnull String name, @Nonnull String resourceGroupName, @Nonnull AbstractAzResourceModule<T, P, R> module) {
         this.name = name;
@@ -62,6 +63,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
         this.remoteRef = new AtomicReference<>();
         this.syncTimeRef = new AtomicLong(-1);
         this.statusRef = new AtomicReference<>(Status.UNKNOWN);
+        this.reloadingRef = new AtomicReference<>();
     }
 
     /**
@@ -83,6 +85,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
         this.remoteRef = origin.remoteRef;
         this.statusRef = origin.statusRef;
         this.syncTimeRef = origin.syncTimeRef;
+        this.reloadingRef = origin.reloadingRef;
     }
 
     public final boolean exists() {
@@ -161,8 +164,24 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     @Override
     @Nullable
     public final R getRemote() {
-        if (this.syncTimeRef.compareAndSet(-1, 0)) {
-            this.reload();
+        // publish the in-flight reload before marking as loading, so that concurrent callers always find it to wait for
+        if (this.syncTimeRef.get() == -1) {
+            final InflightLoad<Void> reloading = new InflightLoad<>();
+            if (this.reloadingRef.compareAndSet(null, reloading)) {
+                try {
+                    if (this.syncTimeRef.compareAndSet(-1, 0)) {
+                        this.reload();
+                    }
+                } finally {
+                    this.reloadingRef.set(null);
+                    reloading.complete(null); // errors are thrown to the caller who reloads only, as before
+                }
+                return this.remoteRef.get();
+            }
+        }
+        final InflightLoad<Void> inflight = this.reloadingRef.get();
+        if (Objects.nonNull(inflight)) {
+            inflight.await(null);
         }
         return this.remoteRef.get();
     }
@@ -6,8 +6,6 @@
 package com.microsoft.azure.toolkit.lib.common.model;
 
 import com.azure.core.http.HttpClient;
-import com.azure.core.http.ProxyOptions;
-import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
 import com.azure.core.http.policy.HttpLogDetailLevel;
 import com.azure.core.http.policy.HttpPipelinePolicy;
 import com.azure.core.management.profile.AzureProfile;
@@ -20,18 +18,14 @@ import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.account.IAccount;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.http.HttpTransport;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
-import io.netty.resolver.AddressResolverGroup;
-import io.netty.resolver.DefaultAddressResolverGroup;
-import io.netty.resolver.NoopAddressResolverGroup;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
-import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.Azure.az;
@@ -108,37 +102,7 @@ public abstract class AbstractAzResourceManager<T extends AbstractAzResource<T,
         };
     }
 
-    public static class HttpClientHolder {
-        private static HttpClient defaultHttpClient = null;
-
-        private static synchronized HttpClient getHttpClient() {
-            if (defaultHttpClient != null) {
-                return defaultHttpClient;
-            }
-
-            AddressResolverGroup resolverGroup;
-            ProxyOptions proxyOptions = null;
-            final AzureConfiguration config = Azure.az().config();
-            if (StringUtils.isNotBlank(config.getProxySource())) {
-                proxyOptions = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort()));
-                if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
-                    proxyOptions.setCredentials(config.getProxyUsername(), config.getProxyPassword());
-                }
-                resolverGroup = NoopAddressResolverGroup.INSTANCE;
-            } else {
-                resolverGroup = DefaultAddressResolverGroup.INSTANCE;
-            }
-            reactor.netty.http.client.HttpClient nettyHttpClient =
-                reactor.netty.http.client.HttpClient.create()
-                    .resolver(resolverGroup);
-            NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(nettyHttpClient);
-            Optional.ofNullable(proxyOptions).map(builder::proxy);
-            defaultHttpClient = builder.build();
-            return defaultHttpClient;
-        }
-    }
-
     static HttpClient getDefaultHttpClient() {
-        return HttpClientHolder.getHttpClient();
+        return HttpTransport.getHttpClient();
     }
 }
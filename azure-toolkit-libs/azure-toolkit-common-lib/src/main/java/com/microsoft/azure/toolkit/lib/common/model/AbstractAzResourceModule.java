@@ -9,9 +9,11 @@ import com.azure.core.management.exception.ManagementException;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingById;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingByName;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingByResourceGroup;
+import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsListingByResourceGroup;
+import com.azure.resourcemanager.resources.fluentcore.arm.models.HasName;
 import com.azure.resourcemanager.resources.fluentcore.collection.SupportsDeletingById;
 import com.azure.resourcemanager.resources.fluentcore.collection.SupportsListing;
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableList;
 import com.microsoft.azure.toolkit.lib.AzService;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
@@ -19,7 +21,9 @@ import com.microsoft.azure.toolkit.lib.common.entity.IAzureBaseResource.Status;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskContext;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
@@ -28,11 +32,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -40,6 +49,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -57,24 +68,76 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     protected final P parent;
     @ToString.Include
     @Getter(AccessLevel.NONE)
-    private final AtomicLong syncTime = new AtomicLong(-1);
+    private final AtomicLong syncTime = new AtomicLong(-1); // 0:loading, <0:invalidated
+    /**
+     * immutable snapshot of local resources, writers replace it (copy-on-write) by CAS instead of locking the module,
+     * so that readers never wait for a slow {@link #loadResourcesFromAzure()}.
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<Map<String, Optional<T>>> resources = new AtomicReference<>(Collections.emptyMap());
+    @Getter(AccessLevel.NONE)
+    private final Map<String, InflightLoad<Optional<T>>> loadings = new ConcurrentHashMap<>();
     @Getter(AccessLevel.NONE)
-    private final Map<String, Optional<T>> resources = new ConcurrentHashMap<>();
+    private final AtomicReference<InflightLoad<Void>> reloadingRef = new AtomicReference<>();
+    @Getter(AccessLevel.NONE)
+    private volatile boolean loaded = false;
+    @Getter(AccessLevel.NONE)
+    private volatile Pair<Map<String, Optional<T>>, List<T>> sorted; // sorted resources of a snapshot
 
     @Nonnull
     @Override
-    public synchronized List<T> list() {
+    public List<T> list() {
         Azure.az(IAzureAccount.class).account();
-        if (this.syncTime.compareAndSet(-1, 0)) {
-            this.reload();
+        // publish the in-flight reload before marking as loading, so that concurrent callers always find it to wait for
+        if (this.syncTime.get() == -1) {
+            final InflightLoad<Void> reloading = new InflightLoad<>();
+            if (this.reloadingRef.compareAndSet(null, reloading)) {
+                if (!this.syncTime.compareAndSet(-1, 0)) {
+                    this.reloadingRef.set(null);
+                    reloading.complete(null);
+                } else if (this.loaded) { // refresh in background, readers keep using current snapshot until the reloaded one is swapped in
+                    // reload in the operation context of the caller, failures are reported to its messager as no caller waits for it
+                    final IAzureMessager messager = AzureMessager.getMessager();
+                    Mono.fromRunnable(AzureTaskContext.wrap(() -> this.reload(reloading))).subscribeOn(Schedulers.boundedElastic())
+                        .subscribe(null, error -> messager.error(error));
+                } else {
+                    this.reload(reloading);
+                }
+            }
+        }
+        final InflightLoad<Void> inflight = this.reloadingRef.get();
+        if (!this.loaded && Objects.nonNull(inflight)) { // nothing to serve before the first load completes
+            inflight.await(null);
+        }
+        final Map<String, Optional<T>> snapshot = this.resources.get();
+        final Pair<Map<String, Optional<T>>, List<T>> sorted = this.sorted;
+        if (Objects.nonNull(sorted) && sorted.getLeft() == snapshot) {
+            return sorted.getRight();
+        }
+        final List<T> result = snapshot.values().stream().filter(Optional::isPresent).map(Optional::get)
+            .sorted(Comparator.comparing(AbstractAzResource::getName)).collect(ImmutableList.toImmutableList());
+        this.sorted = Pair.of(snapshot, result);
+        return result;
+    }
+
+    /**
+     * stream resources matching {@code filter} page by page as azure returns them, without loading all resources of this module into local.
+     * resources that are already local are served from local, so callers may stop early (e.g. {@link Stream#findFirst()}) without
+     * waiting for the rest pages.
+     */
+    @Nonnull
+    public Stream<T> stream(@Nonnull AzResourceFilter filter) {
+        Azure.az(IAzureAccount.class).account();
+        if (this.loaded) {
+            return this.list().stream().filter(filter::testResource);
         }
-        return this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
-            .sorted(Comparator.comparing(AbstractAzResource::getName)).collect(Collectors.toList());
+        return this.loadResourcesFromAzure(filter).filter(filter::testRemote).map(this::toResource).filter(filter::testResource);
     }
 
-    public synchronized void clear() {
+    public void clear() {
+        this.loaded = false;
         this.syncTime.set(-1);
-        this.resources.clear();
+        this.resources.set(Collections.emptyMap());
     }
 
     @Nullable
@@ -84,26 +147,50 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
             return null;
         }
         Azure.az(IAzureAccount.class).account();
-        if (!this.resources.containsKey(name)) {
-            R remote = null;
-            try {
-                remote = loadResourceFromAzure(name, resourceGroup);
-            } catch (Exception e) {
-                final Throwable cause = e instanceof ManagementException ? e : ExceptionUtils.getRootCause(e);
-                if (cause instanceof ManagementException) {
-                    if (HttpStatus.SC_NOT_FOUND != ((ManagementException) cause).getResponse().getStatusCode()) {
-                        throw e;
-                    }
+        final Optional<T> local = this.resources.get().get(name);
+        if (Objects.nonNull(local)) {
+            return local.orElse(null);
+        }
+        // concurrent callers for the same resource share a single load from azure, including the not-found result
+        final String id = this.toResourceId(name, resourceGroup).toLowerCase();
+        final InflightLoad<Optional<T>> loading = new InflightLoad<>();
+        final InflightLoad<Optional<T>> inflight = this.loadings.putIfAbsent(id, loading);
+        if (Objects.nonNull(inflight)) {
+            return inflight.await(Optional.empty()).orElse(null);
+        }
+        try {
+            // double check as the resource may be loaded by a load completed just now
+            final Optional<T> loaded = Optional.ofNullable(this.resources.get().get(name)).orElseGet(() -> this.loadResource(name, resourceGroup));
+            loading.complete(loaded);
+            return loaded.orElse(null);
+        } catch (Throwable t) {
+            loading.fail(t);
+            throw t;
+        } finally {
+            this.loadings.remove(id, loading);
+        }
+    }
+
+    @Nonnull
+    private Optional<T> loadResource(@Nonnull String name, String resourceGroup) {
+        R remote = null;
+        try {
+            remote = loadResourceFromAzure(name, resourceGroup);
+        } catch (Exception e) {
+            final Throwable cause = e instanceof ManagementException ? e : ExceptionUtils.getRootCause(e);
+            if (cause instanceof ManagementException) {
+                if (HttpStatus.SC_NOT_FOUND != ((ManagementException) cause).getResponse().getStatusCode()) {
+                    throw e;
                 }
             }
-            if (Objects.isNull(remote)) {
-                this.addResourceToLocal(name, null);
-            } else {
-                final T resource = newResource(remote);
-                this.addResourceToLocal(name, resource);
-            }
         }
-        return this.resources.get(name).orElse(null);
+        if (Objects.isNull(remote)) {
+            this.addResourceToLocal(name, null);
+        } else {
+            final T resource = newResource(remote);
+            this.addResourceToLocal(name, resource);
+        }
+        return this.resources.get().getOrDefault(name, Optional.empty());
     }
 
     @Override
@@ -183,27 +270,49 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         fireResourcesChangedEvent();
     }
 
-    private synchronized void reload() {
-        Stream<R> loaded;
+    private void reload(@Nonnull InflightLoad<Void> reloading) {
+        try {
+            this.reload();
+        } catch (final RuntimeException | Error e) {
+            // leave "loading" state, a failed reload is not retried by every later list() but only after being refreshed
+            this.syncTime.compareAndSet(0, -2);
+            throw e;
+        } finally {
+            this.reloadingRef.set(null);
+            reloading.complete(null);
+        }
+    }
+
+    private void reload() {
+        final Stream<R> remotes;
         try {
-            loaded = this.loadResourcesFromAzure();
+            remotes = this.loadResourcesFromAzure();
         } catch (Throwable t) {
             this.syncTime.set(-2);
             AzureMessager.getMessager().error(t);
             return;
         }
-        final Map<String, T> loadedResources = loaded.parallel().map(this::newResource).collect(Collectors.toMap(AbstractAzResource::getName, r -> r));
-        final Set<String> localResources = this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
-            .map(AbstractAzResource::getName).collect(Collectors.toSet());
-        final Set<String> creating = this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
-            .filter(r -> Status.CREATING.equals(r.getStatus())).map(AbstractAzResource::getName).collect(Collectors.toSet());
-        final Sets.SetView<String> refreshed = Sets.intersection(localResources, loadedResources.keySet());
-        final Sets.SetView<String> deleted = Sets.difference(Sets.difference(localResources, loadedResources.keySet()), creating);
-        final Sets.SetView<String> added = Sets.difference(loadedResources.keySet(), localResources);
-
-        refreshed.forEach(name -> this.resources.get(name).ifPresent(r -> r.setRemote(loadedResources.get(name).getRemote())));
-        deleted.forEach(name -> Optional.ofNullable(this.deleteResourceFromLocal(name)).ifPresent(t -> t.setStatus(Status.DELETED)));
-        added.forEach(name -> this.addResourceToLocal(name, loadedResources.get(name)));
+        final Map<String, T> loadedResources = remotes.parallel().map(this::newResource).collect(Collectors.toMap(AbstractAzResource::getName, r -> r));
+        // swap in the reloaded resources at once, existing instances are kept (and refreshed below) as they may be referenced by callers.
+        final Map<String, Optional<T>> origin = this.updateResources(local -> {
+            local.entrySet().removeIf(e -> e.getValue().isPresent() && !loadedResources.containsKey(e.getKey())
+                && !Status.CREATING.equals(e.getValue().get().getStatus()));
+            loadedResources.forEach((name, resource) -> {
+                if (!local.getOrDefault(name, Optional.empty()).isPresent()) {
+                    local.put(name, Optional.of(resource));
+                }
+            });
+        });
+        final Map<String, Optional<T>> current = this.resources.get();
+        final Set<T> deleted = origin.values().stream().filter(Optional::isPresent).map(Optional::get)
+            .filter(r -> !current.getOrDefault(r.getName(), Optional.empty()).isPresent()).collect(Collectors.toSet());
+        final boolean added = loadedResources.keySet().stream().anyMatch(name -> !origin.getOrDefault(name, Optional.empty()).isPresent());
+        origin.forEach((name, r) -> r.filter(t -> loadedResources.containsKey(name)).ifPresent(t -> t.setRemote(loadedResources.get(name).getRemote())));
+        deleted.forEach(t -> t.setStatus(Status.DELETED));
+        if (added || !deleted.isEmpty()) {
+            fireResourcesChangedEvent();
+        }
+        this.loaded = true;
         this.syncTime.set(System.currentTimeMillis());
     }
 
@@ -213,26 +322,52 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         return String.format("%s/%s/%s", this.parent.getId(), this.getName(), resourceName).replace(AzResource.RESOURCE_GROUP_PLACEHOLDER, resourceGroup);
     }
 
+    @Nonnull
+    private T toResource(@Nonnull R remote) {
+        if (remote instanceof HasName) {
+            final Optional<T> local = this.resources.get().get(((HasName) remote).name());
+            if (Objects.nonNull(local) && local.isPresent()) {
+                return local.get();
+            }
+        }
+        return this.newResource(remote);
+    }
+
     @Nullable
     T deleteResourceFromLocal(@Nonnull String name) {
-        final Optional<T> removed = this.resources.remove(name);
+        final Optional<T> removed = this.updateResources(local -> local.remove(name)).get(name);
         if (Objects.nonNull(removed) && removed.isPresent()) {
             fireResourcesChangedEvent();
         }
         return Objects.nonNull(removed) ? removed.orElse(null) : null;
     }
 
-    private synchronized void addResourceToLocal(@Nonnull String name, @Nullable T resource) {
-        final Optional<T> oldResource = this.resources.getOrDefault(name, Optional.empty());
+    private void addResourceToLocal(@Nonnull String name, @Nullable T resource) {
         final Optional<T> newResource = Optional.ofNullable(resource);
-        if (!oldResource.isPresent()) {
-            this.resources.put(name, newResource);
-            if (newResource.isPresent()) {
-                fireResourcesChangedEvent();
+        final Optional<T> oldResource = this.updateResources(local -> {
+            if (!local.getOrDefault(name, Optional.empty()).isPresent()) {
+                local.put(name, newResource);
             }
+        }).getOrDefault(name, Optional.empty());
+        if (!oldResource.isPresent() && newResource.isPresent()) {
+            fireResourcesChangedEvent();
         }
     }
 
+    /**
+     * apply {@code modifier} to a copy of local resources and swap it in, {@code modifier} may be retried on contention and should have no side effect.
+     *
+     * @return local resources before modification
+     */
+    @Nonnull
+    private Map<String, Optional<T>> updateResources(@Nonnull Consumer<Map<String, Optional<T>>> modifier) {
+        return this.resources.getAndUpdate(origin -> {
+            final Map<String, Optional<T>> copy = new HashMap<>(origin);
+            modifier.accept(copy);
+            return Collections.unmodifiableMap(copy);
+        });
+    }
+
     private void fireResourcesChangedEvent() {
         if (this.getParent() instanceof AbstractAzResourceManager) {
             final AzResourceModule<P, ?, ?> service = this.getParent().getModule();
@@ -272,9 +407,28 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
             return this.<SupportsGettingByResourceGroup<R>>cast(client).getByResourceGroup(resourceGroup, name);
         } else if (client instanceof SupportsGettingById && StringUtils.isNotEmpty(resourceGroup)) {
             return this.<SupportsGettingById<R>>cast(client).getByIdAsync(toResourceId(name, resourceGroup)).block();
-        } else { // fallback to filter the named resource from all resources in current module.
-            return this.list().stream().filter(r -> StringUtils.equals(name, r.getName())).findAny().map(AbstractAzResource::getRemote).orElse(null);
+        } else { // fallback to filter the named resource from resources in current module, stop as soon as it's found.
+            return this.stream(AzResourceFilter.builder().namePrefix(name).build()).filter(r -> StringUtils.equals(name, r.getName()))
+                .findAny().map(AbstractAzResource::getRemote).orElse(null);
+        }
+    }
+
+    /**
+     * lazily list remotes matching {@code filter} page by page, resource group of {@code filter} is applied by azure if the client supports,
+     * the rest are applied by {@link #stream(AzResourceFilter)}.
+     */
+    @Nonnull
+    protected Stream<R> loadResourcesFromAzure(@Nonnull AzResourceFilter filter) {
+        final String resourceGroup = filter.getResourceGroup();
+        if (StringUtils.isNotBlank(resourceGroup) && !StringUtils.equals(resourceGroup, AzResource.RESOURCE_GROUP_PLACEHOLDER)) {
+            final Object client = this.getClient();
+            if (client instanceof SupportsListingByResourceGroup) {
+                AzureTelemetry.getContext().setProperty("resourceType", this.getFullResourceType());
+                AzureTelemetry.getContext().setProperty("subscriptionId", this.getSubscriptionId());
+                return this.<SupportsListingByResourceGroup<R>>cast(client).listByResourceGroup(resourceGroup).stream();
+            }
         }
+        return this.loadResourcesFromAzure();
     }
 
     @AzureOperation(
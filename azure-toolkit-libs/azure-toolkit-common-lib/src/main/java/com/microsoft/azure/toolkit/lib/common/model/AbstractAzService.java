@@ -61,6 +61,12 @@ public abstract class AbstractAzService<T extends AbstractAzResourceManager<T, R
             .map(Subscription::getId).map(i -> loadResourceFromAzure(i, null));
     }
 
+    @Nonnull
+    @Override
+    protected Stream<R> loadResourcesFromAzure(@Nonnull AzResourceFilter filter) {
+        return this.loadResourcesFromAzure(); // resource managers are per subscription, not listed by resource group
+    }
+
     @Nonnull
     @Override
     public String toResourceId(@Nonnull String resourceName, String resourceGroup) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.resourcemanager.resources.fluentcore.arm.models.HasName;
+import com.azure.resourcemanager.resources.fluentcore.arm.models.HasResourceGroup;
+import com.azure.resourcemanager.resources.fluentcore.arm.models.Resource;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * filter of {@link AbstractAzResourceModule#stream(AzResourceFilter)}, resource group is applied by azure if the client supports,
+ * others are applied on remotes as pages are returned.
+ */
+@Getter
+@Builder
+public class AzResourceFilter {
+    public static final AzResourceFilter ALL = AzResourceFilter.builder().build();
+
+    @Nullable
+    private final String resourceGroup;
+    @Nullable
+    private final String namePrefix;
+    /**
+     * only applies to remotes exposing tags, e.g. {@link Resource}
+     */
+    @Singular
+    private final Map<String, String> tags;
+
+    /**
+     * @return false if {@code remote} is known not to match, so that no resource will be created for it.
+     */
+    boolean testRemote(@Nonnull Object remote) {
+        if (remote instanceof HasName && !this.testName(((HasName) remote).name())) {
+            return false;
+        }
+        if (remote instanceof HasResourceGroup && StringUtils.isNotBlank(this.resourceGroup) &&
+            !StringUtils.equalsIgnoreCase(((HasResourceGroup) remote).resourceGroupName(), this.resourceGroup)) {
+            return false;
+        }
+        return this.testTags(remote);
+    }
+
+    boolean testResource(@Nonnull AbstractAzResource<?, ?, ?> resource) {
+        return this.testName(resource.getName()) && (StringUtils.isBlank(this.resourceGroup) || StringUtils.equalsIgnoreCase(resource.getResourceGroupName(), this.resourceGroup))
+            && (this.tags.isEmpty() || this.testTags(resource.getRemote()));
+    }
+
+    private boolean testTags(@Nullable Object remote) {
+        if (remote instanceof Resource && !this.tags.isEmpty()) {
+            final Map<String, String> remoteTags = ((Resource) remote).tags();
+            return Objects.nonNull(remoteTags) && this.tags.entrySet().stream().allMatch(t -> Objects.equals(remoteTags.get(t.getKey()), t.getValue()));
+        }
+        return true;
+    }
+
+    private boolean testName(String name) {
+        return StringUtils.isEmpty(this.namePrefix) || StringUtils.startsWithIgnoreCase(name, this.namePrefix);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * an in-flight load shared by concurrent callers (single-flight): the caller who starts it does the load on its own
+ * thread (so that operation/telemetry context is kept), others wait for and share its result or error.
+ */
+final class InflightLoad<V> {
+    private final Thread owner = Thread.currentThread();
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+
+    void complete(V value) {
+        this.future.complete(value);
+    }
+
+    void fail(Throwable error) {
+        this.future.completeExceptionally(error);
+    }
+
+    /**
+     * @return result of the load, or {@code fallback} if the load is started by current thread (reentrant), which would never complete otherwise.
+     */
+    V await(V fallback) {
+        if (this.owner == Thread.currentThread()) {
+            return fallback;
+        }
+        try {
+            return this.future.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new AzureToolkitRuntimeException(cause);
+        }
+    }
+}
@@ -32,6 +32,7 @@ public final class AzureOperationAspect {
     public void beforeEnter(JoinPoint point) {
         final AzureOperationRef operation = toOperationRef(point);
         AzureTelemeter.beforeEnter(operation);
+        AzureOperationTracer.enter(operation);
         AzureTaskContext.current().pushOperation(operation);
         final Object source = point.getThis();
         if (source instanceof AzureOperationEvent.Source) {
@@ -43,12 +44,12 @@ public final class AzureOperationAspect {
 
     @AfterReturning("operation()")
     public void afterReturning(JoinPoint point) {
-        final AzureOperationRef current = toOperationRef(point);
         final AzureOperationRef operation = (AzureOperationRef) AzureTaskContext.current().popOperation();
         // TODO: this cannot ensure same operation actually, considering recursive call
-        assert Objects.nonNull(operation) && operation.getMethod().equals(current.getMethod()) :
-            String.format("popped operation[%s] is not the exiting operation[%s]", current, operation);
+        assert Objects.nonNull(operation) && operation.getMethod().equals(((MethodSignature) point.getSignature()).getMethod()) :
+            String.format("popped operation[%s] is not the exiting operation[%s]", operation, point.getSignature());
         AzureTelemeter.afterExit(operation);
+        AzureOperationTracer.exit(operation, null);
         final Object source = point.getThis();
         if (source instanceof AzureOperationEvent.Source) {
             final AzureOperationEvent.Source<?> target = ((AzureOperationEvent.Source<?>) source).getEventSource();
@@ -59,12 +60,12 @@ public final class AzureOperationAspect {
 
     @AfterThrowing(pointcut = "operation()", throwing = "e")
     public void afterThrowing(JoinPoint point, Throwable e) throws Throwable {
-        final AzureOperationRef current = toOperationRef(point);
         final AzureOperationRef operation = (AzureOperationRef) AzureTaskContext.current().popOperation();
         // TODO: this cannot ensure same operation actually, considering recursive call
-        assert Objects.nonNull(operation) && operation.getMethod().equals(current.getMethod()) :
-            String.format("popped operation[%s] is not the operation[%s] throwing exception", current, operation);
+        assert Objects.nonNull(operation) && operation.getMethod().equals(((MethodSignature) point.getSignature()).getMethod()) :
+            String.format("popped operation[%s] is not the operation[%s] throwing exception", operation, point.getSignature());
         AzureTelemeter.onError(operation, e);
+        AzureOperationTracer.exit(operation, e);
         final Object source = point.getThis();
         if (source instanceof AzureOperationEvent.Source) {
             final AzureOperationEvent.Source<?> target = ((AzureOperationEvent.Source<?>) source).getEventSource();
@@ -21,6 +21,9 @@ public class AzureOperationRef extends MethodInvocation implements IAzureOperati
     @Getter
     @Setter
     private IAzureOperation parent;
+    @Getter
+    @Setter
+    private long enterNanos; // 0 unless recorded by AzureOperationTracer, i.e. tracing is enabled or a span listener is registered
 
     @Override
     public String toString() {
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.operation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * records {@link AzureOperation} spans into a ring buffer (the oldest are overwritten when full) and exports them as a
+ * json file in chrome trace event format, which can be opened by {@code chrome://tracing} or perfetto.
+ * tracing is enabled by system property {@value #TRACE_FILE_PROPERTY} set to the path of the exported file, buffer size
+ * can be changed by {@value #CAPACITY_PROPERTY}. spans are also passed to listeners (e.g. {@link TimingReport}) even if tracing is not enabled.
+ */
+@Log
+public final class AzureOperationTracer {
+    public static final String TRACE_FILE_PROPERTY = "azure.toolkit.operation.trace";
+    public static final String CAPACITY_PROPERTY = "azure.toolkit.operation.trace.capacity";
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final String traceFile = System.getProperty(TRACE_FILE_PROPERTY);
+    @Getter
+    private static final boolean enabled = StringUtils.isNotBlank(traceFile);
+    private static final long originNanos = System.nanoTime();
+    private static final long originMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    private static final AtomicReferenceArray<Span> spans = new AtomicReferenceArray<>(enabled ? capacity() : 0);
+    private static final AtomicLong next = new AtomicLong();
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final List<Consumer<Span>> listeners = new CopyOnWriteArrayList<>();
+
+    private AzureOperationTracer() {
+    }
+
+    public static void addListener(@Nonnull Consumer<Span> listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(@Nonnull Consumer<Span> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return current time in micros since epoch, on the same (monotonic) clock as spans
+     */
+    public static long nowMicros() {
+        return originMicros + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - originNanos);
+    }
+
+    static void enter(@Nonnull AzureOperationRef operation) {
+        if (enabled || !listeners.isEmpty()) {
+            operation.setEnterNanos(System.nanoTime());
+        }
+    }
+
+    static void exit(@Nonnull AzureOperationRef operation, @Nullable Throwable error) {
+        if (operation.getEnterNanos() == 0 || (!enabled && listeners.isEmpty())) {
+            return;
+        }
+        final long exitNanos = System.nanoTime();
+        final Thread thread = Thread.currentThread();
+        final String parentId = Optional.ofNullable(operation.getParent()).map(IAzureOperation::getId).orElse(null);
+        final Span span = new Span(operation.getName(), operation.getType(), operation.getId(), parentId,
+            originMicros + TimeUnit.NANOSECONDS.toMicros(operation.getEnterNanos() - originNanos),
+            TimeUnit.NANOSECONDS.toMicros(exitNanos - operation.getEnterNanos()),
+            thread.getId(), thread.getName(), Optional.ofNullable(error).map(e -> e.getClass().getName()).orElse(null));
+        if (enabled) {
+            spans.set((int) (next.getAndIncrement() % spans.length()), span);
+        }
+        listeners.forEach(l -> l.accept(span));
+    }
+
+    /**
+     * export recorded spans to the file specified by {@value #TRACE_FILE_PROPERTY}, does nothing if tracing is not enabled.
+     */
+    public static void export() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            export(new File(traceFile));
+        } catch (final IOException e) {
+            log.warning(String.format("failed to export operation traces to %s: %s", traceFile, e.getMessage()));
+        }
+    }
+
+    public static void export(@Nonnull File file) throws IOException {
+        final List<Span> recorded = new ArrayList<>();
+        for (int i = 0; i < spans.length(); i++) {
+            Optional.ofNullable(spans.get(i)).ifPresent(recorded::add);
+        }
+        final List<Map<String, Object>> events = recorded.stream().sorted(Comparator.comparingLong(s -> s.start))
+            .map(Span::toTraceEvent).collect(Collectors.toList());
+        final Map<String, Object> trace = new HashMap<>();
+        trace.put("traceEvents", events);
+        trace.put("displayTimeUnit", "ms");
+        Optional.ofNullable(file.getAbsoluteFile().getParentFile()).ifPresent(File::mkdirs);
+        Files.write(file.toPath(), mapper.writeValueAsBytes(trace));
+    }
+
+    private static int capacity() {
+        return Math.max(1, NumberUtils.toInt(System.getProperty(CAPACITY_PROPERTY), DEFAULT_CAPACITY));
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Span {
+        private final String name;
+        private final String type;
+        private final String id;
+        @Nullable
+        private final String parentId;
+        private final long start; // micros since epoch
+        private final long duration; // micros
+        private final long threadId;
+        private final String threadName;
+        @Nullable
+        private final String error;
+
+        /**
+         * @return end of this span in micros since epoch
+         */
+        public long getEnd() {
+            return this.start + this.duration;
+        }
+
+        private Map<String, Object> toTraceEvent() {
+            final Map<String, Object> args = new HashMap<>();
+            args.put("id", this.id);
+            args.put("thread", this.threadName);
+            if (Objects.nonNull(this.parentId)) {
+                args.put("parentId", this.parentId);
+            }
+            if (Objects.nonNull(this.error)) {
+                args.put("error", this.error);
+            }
+            final Map<String, Object> event = new HashMap<>();
+            event.put("name", this.name);
+            event.put("cat", this.type);
+            event.put("ph", "X"); // complete event
+            event.put("ts", this.start);
+            event.put("dur", this.duration);
+            event.put("pid", 1);
+            event.put("tid", this.threadId);
+            event.put("args", args);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.operation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskContext;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * wall time of a goal broken down by phases. phases are recorded explicitly by {@link #time(Phase)} or classified from
+ * {@link AzureOperation} names, overlapping time in a phase is counted once, but different phases may overlap (e.g. polling in upload).
+ * a report is bound to the task context it is started in, and only collects phases of that context and the contexts derived from it,
+ * so that goals running in parallel (e.g. {@code mvn -T}) in the same jvm are reported separately.
+ */
+public class TimingReport {
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<AzureTaskContext, TimingReport> reports = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String name;
+    private final AzureTaskContext context;
+    private final long start = AzureOperationTracer.nowMicros();
+    private final Map<Phase, List<long[]>> intervals = new EnumMap<>(Phase.class);
+    private final Consumer<AzureOperationTracer.Span> listener = this::onOperation;
+    private long end;
+
+    private TimingReport(@Nonnull String name, @Nonnull AzureTaskContext context) {
+        this.name = name;
+        this.context = context;
+    }
+
+    /**
+     * start a report bound to current task context, which collects phases till {@link #finish()}. the context should be one
+     * dedicated to the timed work (e.g. derived by {@link AzureTaskContext#wrap}), as a root context of a thread is disposed
+     * once its outermost operation exits.
+     */
+    @Nonnull
+    public static TimingReport start(@Nonnull String name) {
+        final TimingReport report = new TimingReport(name, AzureTaskContext.current());
+        reports.put(report.context, report);
+        AzureOperationTracer.addListener(report.listener);
+        return report;
+    }
+
+    /**
+     * @return a timer recording into current report when closed, does nothing if there is no current report.
+     */
+    @Nonnull
+    public static Timer time(@Nonnull Phase phase) {
+        final TimingReport report = current();
+        final long start = AzureOperationTracer.nowMicros();
+        return () -> Optional.ofNullable(report).ifPresent(r -> r.record(phase, start, AzureOperationTracer.nowMicros()));
+    }
+
+    /**
+     * time {@code mono} from subscription till termination into current report, which is looked up when this method is called,
+     * as the mono may be subscribed in a thread outside of current task context.
+     */
+    @Nonnull
+    public static <T> Mono<T> time(@Nonnull Phase phase, @Nonnull Mono<T> mono) {
+        final TimingReport report = current();
+        if (Objects.isNull(report)) {
+            return mono;
+        }
+        return Mono.defer(() -> {
+            final long start = AzureOperationTracer.nowMicros();
+            return mono.doFinally(signal -> report.record(phase, start, AzureOperationTracer.nowMicros()));
+        });
+    }
+
+    /**
+     * @return report bound to current task context or the nearest context it is (indirectly) derived from.
+     */
+    @Nullable
+    private static TimingReport current() {
+        if (reports.isEmpty()) {
+            return null;
+        }
+        for (AzureTaskContext context = AzureTaskContext.current(); Objects.nonNull(context); context = context.getOrigin()) {
+            final TimingReport report = reports.get(context);
+            if (Objects.nonNull(report)) {
+                return report;
+            }
+        }
+        return null;
+    }
+
+    public void finish() {
+        AzureOperationTracer.removeListener(this.listener);
+        reports.remove(this.context, this);
+        this.end = AzureOperationTracer.nowMicros();
+    }
+
+    /**
+     * @return milliseconds of recorded phases in the order of {@link Phase}
+     */
+    @Nonnull
+    public synchronized Map<Phase, Long> getPhases() {
+        final Map<Phase, Long> result = new EnumMap<>(Phase.class);
+        this.intervals.forEach((phase, list) -> result.put(phase, TimeUnit.MICROSECONDS.toMillis(union(list))));
+        return result;
+    }
+
+    public long getTotal() {
+        return TimeUnit.MICROSECONDS.toMillis((this.end > 0 ? this.end : AzureOperationTracer.nowMicros()) - this.start);
+    }
+
+    @Nonnull
+    public String toSummary() {
+        final String phases = this.getPhases().entrySet().stream()
+            .map(e -> String.format("%s %s", e.getKey().getTitle(), toSeconds(e.getValue()))).collect(Collectors.joining(", "));
+        return String.format("%s took %s%s", this.name, toSeconds(this.getTotal()), StringUtils.isBlank(phases) ? "" : String.format(" (%s)", phases));
+    }
+
+    public void write(@Nonnull File file, @Nonnull Map<String, String> properties) throws IOException {
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", this.name);
+        json.putAll(properties);
+        json.put("start", Instant.ofEpochMilli(TimeUnit.MICROSECONDS.toMillis(this.start)).toString());
+        json.put("total", this.getTotal());
+        final Map<String, Long> phases = new LinkedHashMap<>();
+        this.getPhases().forEach((phase, millis) -> phases.put(phase.name().toLowerCase(), millis));
+        json.put("phases", phases);
+        Optional.ofNullable(file.getAbsoluteFile().getParentFile()).ifPresent(File::mkdirs);
+        mapper.writeValue(file, json);
+    }
+
+    /**
+     * spans are passed to listeners in the thread exiting the operation, so current report is the one the operation belongs to.
+     */
+    private void onOperation(@Nonnull AzureOperationTracer.Span span) {
+        final Phase phase = Phase.of(span.getName());
+        if (Objects.nonNull(phase) && current() == this) {
+            this.record(phase, span.getStart(), span.getEnd());
+        }
+    }
+
+    private synchronized void record(@Nonnull Phase phase, long start, long end) {
+        this.intervals.computeIfAbsent(phase, p -> new ArrayList<>()).add(new long[]{start, end});
+    }
+
+    private static long union(@Nonnull List<long[]> intervals) {
+        final List<long[]> sorted = intervals.stream().sorted(Comparator.comparingLong(i -> i[0])).collect(Collectors.toList());
+        long total = 0;
+        long coveredUntil = Long.MIN_VALUE;
+        for (final long[] interval : sorted) {
+            final long start = Math.max(interval[0], coveredUntil);
+            if (interval[1] > start) {
+                total += interval[1] - start;
+                coveredUntil = interval[1];
+            }
+        }
+        return total;
+    }
+
+    private static String toSeconds(long millis) {
+        return String.format("%.1fs", millis / 1000.0);
+    }
+
+    @FunctionalInterface
+    public interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Phase {
+        LOGIN("login"),
+        SUBSCRIPTION("subscription listing"),
+        RESOURCE_LOOKUP("resource lookup"),
+        CREATE_UPDATE("create/update"),
+        PACKAGING("packaging"),
+        UPLOAD("upload"),
+        POLLING("post-deploy polling");
+
+        private final String title;
+
+        /**
+         * classify operation by the action of its name, e.g. {@code list_plans} of {@code appservice.list_plans.rg}
+         */
+        @Nullable
+        static Phase of(@Nonnull String operationName) {
+            final String[] parts = operationName.split("\\.");
+            if (parts.length < 2) {
+                return null;
+            }
+            final String action = parts[1];
+            if (StringUtils.startsWithAny(action, "get_", "list_", "load_", "check_", "reload")) {
+                return RESOURCE_LOOKUP;
+            } else if (StringUtils.startsWithAny(action, "create", "update")) {
+                return CREATE_UPDATE;
+            }
+            return null;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import javax.annotation.Nullable;
 import java.io.InterruptedIOException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 @Log
 public class AzureTaskContext {
@@ -31,6 +32,12 @@ public class AzureTaskContext {
     @Getter
     @Nullable
     protected AzureTaskContext parent;
+    /**
+     * the context this one is derived from, which is kept even if this context is set up in another thread, unlike {@link #parent}.
+     */
+    @Getter
+    @Nullable
+    private final AzureTaskContext origin;
     @Getter
     @Setter(AccessLevel.PACKAGE)
     @Nullable
@@ -40,6 +47,7 @@ public class AzureTaskContext {
         this.operation = Optional.ofNullable(parent).map(p -> p.operation).orElse(null);
         this.threadId = -1;
         this.parent = parent;
+        this.origin = parent;
     }
 
     @Nonnull
@@ -106,6 +114,40 @@ public class AzureTaskContext {
         }
     }
 
+    /**
+     * Wrap the callable so that it runs (e.g. in another thread) in a context derived from the current one, and thus sees the
+     * operations and messager of the caller. Unlike {@link #run}, exceptions are thrown to whoever calls the wrapped callable.
+     * Must be called in the thread submitting the callable.
+     */
+    @Nonnull
+    public static <T> Callable<T> wrap(@Nonnull final Callable<T> callable) {
+        final AzureTaskContext context = AzureTaskContext.current().derive();
+        return () -> {
+            context.setup();
+            try {
+                return callable.call();
+            } finally {
+                context.dispose();
+            }
+        };
+    }
+
+    /**
+     * @see #wrap(Callable)
+     */
+    @Nonnull
+    public static Runnable wrap(@Nonnull final Runnable runnable) {
+        final AzureTaskContext context = AzureTaskContext.current().derive();
+        return () -> {
+            context.setup();
+            try {
+                runnable.run();
+            } finally {
+                context.dispose();
+            }
+        };
+    }
+
     @Nonnull
     AzureTaskContext derive() {
         final long threadId = Thread.currentThread().getId();
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import com.microsoft.applicationinsights.TelemetryConfiguration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Bounded, lock-free queue of telemetry events and the single background thread which sends them in batches, so that
+ * callers neither redact properties nor flush the channel themselves. Callers that finish a unit of work (e.g. a maven
+ * goal) drain the queue with {@link #flush(Duration)}, since the JVM may outlive them (e.g. maven daemon or IDE). Events
+ * left behind are drained with a deadline when the JVM shuts down.
+ */
+@Log
+class AsyncTelemetrySender {
+    static final AsyncTelemetrySender INSTANCE = new AsyncTelemetrySender();
+
+    private static final int MAX_PENDING_EVENTS = 1024;
+    private static final int BATCH_SIZE = 64;
+    private static final long IDLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ConcurrentLinkedQueue<PendingEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Thread worker;
+
+    boolean offer(@Nonnull AzureTelemetryClient client, @Nonnull String eventName, @Nonnull Map<String, String> properties,
+                  Map<String, Double> metrics) {
+        if (pending.incrementAndGet() > MAX_PENDING_EVENTS) {
+            pending.decrementAndGet();
+            log.log(Level.FINE, String.format("Telemetry queue is full, event %s is dropped", eventName));
+            return false;
+        }
+        queue.offer(new PendingEvent(client, eventName, properties, metrics));
+        enqueued.incrementAndGet();
+        start();
+        if (pending.get() >= BATCH_SIZE) {
+            LockSupport.unpark(worker);
+        }
+        return true;
+    }
+
+    /**
+     * Queue a barrier behind the pending events and wait for the sender thread to reach it, returns immediately if
+     * there are no pending events.
+     *
+     * @return whether all events queued before this call are sent to the channel before timeout
+     */
+    boolean flush(@Nonnull Duration timeout) {
+        if (processed.get() >= enqueued.get()) {
+            return true;
+        }
+        final CompletableFuture<Void> barrier = new CompletableFuture<>();
+        queue.offer(new PendingEvent(barrier));
+        LockSupport.unpark(worker);
+        try {
+            barrier.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (final TimeoutException | ExecutionException e) {
+            return false;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            final Thread thread = new Thread(this::run, "azure-telemetry-sender");
+            thread.setDaemon(true);
+            this.worker = thread;
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "azure-telemetry-shutdown"));
+        }
+    }
+
+    private void run() {
+        final List<PendingEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            PendingEvent event;
+            CompletableFuture<Void> barrier = null;
+            while (batch.size() < BATCH_SIZE && (event = queue.poll()) != null) {
+                if (event.barrier != null) {
+                    // send what is queued before the barrier, then release the waiting caller
+                    barrier = event.barrier;
+                    break;
+                }
+                batch.add(event);
+            }
+            if (batch.isEmpty() && barrier == null) {
+                LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                continue;
+            }
+            send(batch);
+            pending.addAndGet(-batch.size());
+            processed.addAndGet(batch.size());
+            batch.clear();
+            if (barrier != null) {
+                barrier.complete(null);
+            }
+        }
+    }
+
+    private static void send(final List<PendingEvent> batch) {
+        final Set<AzureTelemetryClient> clients = new LinkedHashSet<>();
+        for (final PendingEvent event : batch) {
+            try {
+                event.client.send(event.eventName, event.properties, event.metrics);
+                clients.add(event.client);
+            } catch (final RuntimeException e) {
+                log.log(Level.FINE, String.format("Failed to send telemetry event %s", event.eventName), e);
+            }
+        }
+        // flush once per batch instead of once per event
+        clients.forEach(client -> client.getClient().flush());
+    }
+
+    /**
+     * Fallback for events queued after the last {@link #flush(Duration)}, e.g. if the caller never flushes.
+     */
+    private void shutdown() {
+        final long start = System.nanoTime();
+        if (!flush(SHUTDOWN_TIMEOUT)) {
+            log.log(Level.FINE, "Timed out draining telemetry queue, remaining events are dropped");
+        }
+        // wait for the channel to transmit what is flushed within the rest of the deadline
+        final long remaining = SHUTDOWN_TIMEOUT.toNanos() - (System.nanoTime() - start);
+        if (remaining > 0) {
+            TelemetryConfiguration.getActive().getChannel().stop(remaining, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingEvent {
+        private final AzureTelemetryClient client;
+        private final String eventName;
+        private final Map<String, String> properties;
+        private final Map<String, Double> metrics;
+        private final CompletableFuture<Void> barrier;
+
+        PendingEvent(AzureTelemetryClient client, String eventName, Map<String, String> properties, Map<String, Double> metrics) {
+            this(client, eventName, properties, metrics, null);
+        }
+
+        PendingEvent(CompletableFuture<Void> barrier) {
+            this(null, null, null, null, barrier);
+        }
+    }
+}
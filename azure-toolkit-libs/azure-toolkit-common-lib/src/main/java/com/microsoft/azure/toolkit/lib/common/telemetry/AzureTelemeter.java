@@ -10,18 +10,24 @@ import com.microsoft.azure.toolkit.lib.common.operation.IAzureOperation;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry.Properties;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry.Property;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AzureTelemeter {
     public static final String SERVICE_NAME = "serviceName";
@@ -44,6 +50,10 @@ public class AzureTelemeter {
     @Setter
     @Nullable
     private static AzureTelemetryClient client;
+    // names and annotated parameters of operation methods are parsed once per annotation/method instead of on every exit,
+    // names of other operations (e.g. tasks) may be free-form titles, so they are not cached.
+    private static final Map<String, OperationName> operationNames = new ConcurrentHashMap<>();
+    private static final Map<Method, List<ParameterProperty>> parameterProperties = new ConcurrentHashMap<>();
 
     @Nullable
     public static Map<String, String> getCommonProperties() {
@@ -97,18 +107,14 @@ public class AzureTelemeter {
         final Map<String, String> actionProperties = getActionProperties(context.getOperation());
         final Optional<IAzureOperation> parent = Optional.ofNullable(op.getParent());
         final Map<String, String> properties = new HashMap<>();
-        final String name = op.getName().replaceAll("\\(.+\\)", "(***)"); // e.g. `appservice.list_file.dir`
-        final String[] parts = name.split("\\."); // ["appservice|file", "list", "dir"]
-        if (parts.length > 1) {
-            final String[] compositeServiceName = parts[0].split("\\|"); // ["appservice", "file"]
-            final String mainServiceName = compositeServiceName[0]; // "appservice"
-            final String operationName = compositeServiceName.length > 1 ? parts[1] + "_" + compositeServiceName[1] : parts[1]; // "list_file"
-            properties.put(SERVICE_NAME, mainServiceName);
-            properties.put(OPERATION_NAME, operationName);
+        final OperationName name = op instanceof AzureOperationRef ? operationNames.computeIfAbsent(op.getName(), OperationName::parse) : OperationName.parse(op.getName());
+        if (Objects.nonNull(name.serviceName)) {
+            properties.put(SERVICE_NAME, name.serviceName);
+            properties.put(OPERATION_NAME, name.operationName);
         }
         properties.put(OP_ID, op.getId());
         properties.put(OP_PARENT_ID, parent.map(IAzureOperation::getId).orElse("/"));
-        properties.put(OP_NAME, name);
+        properties.put(OP_NAME, name.name);
         properties.put(OP_TYPE, op.getType());
         properties.putAll(actionProperties);
         if (op instanceof AzureOperationRef) {
@@ -121,19 +127,13 @@ public class AzureTelemeter {
     private static Map<String, String> getParameterProperties(AzureOperationRef ref) {
         final HashMap<String, String> properties = new HashMap<>();
         final Object[] paramValues = ref.getParamValues();
-        final Parameter[] parameters = ref.getMethod().getParameters();
-        for (int i = 0; i < parameters.length; i++) {
-            final Parameter param = parameters[i];
-            final Object value = paramValues[i];
-            Optional.ofNullable(param.getAnnotation(Property.class))
-                    .map(Property::value)
-                    .map(n -> Property.PARAM_NAME.equals(n) ? param.getName() : n)
-                    .ifPresent((name) -> properties.put(name, Optional.ofNullable(value).map(Object::toString).orElse("")));
-            Optional.ofNullable(param.getAnnotation(Properties.class))
-                    .map(Properties::value)
-                    .map(AzureTelemeter::instantiate)
-                    .map(converter -> converter.convert(value))
-                    .ifPresent(properties::putAll);
+        for (final ParameterProperty property : parameterProperties.computeIfAbsent(ref.getMethod(), ParameterProperty::parse)) {
+            final Object value = paramValues[property.index];
+            if (Objects.nonNull(property.name)) {
+                properties.put(property.name, Optional.ofNullable(value).map(Object::toString).orElse(""));
+            } else {
+                properties.putAll(instantiate(property.converter).convert(value));
+            }
         }
         return properties;
     }
@@ -163,6 +163,56 @@ public class AzureTelemeter {
         return properties;
     }
 
+    @RequiredArgsConstructor
+    private static class OperationName {
+        private final String name;
+        @Nullable
+        private final String serviceName;
+        @Nullable
+        private final String operationName;
+
+        private static OperationName parse(@Nonnull String rawName) {
+            final String name = rawName.replaceAll("\\(.+\\)", "(***)"); // e.g. `appservice.list_file.dir`
+            final String[] parts = name.split("\\."); // ["appservice|file", "list", "dir"]
+            if (parts.length > 1) {
+                final String[] compositeServiceName = parts[0].split("\\|"); // ["appservice", "file"]
+                final String mainServiceName = compositeServiceName[0]; // "appservice"
+                final String operationName = compositeServiceName.length > 1 ? parts[1] + "_" + compositeServiceName[1] : parts[1]; // "list_file"
+                return new OperationName(name, mainServiceName, operationName);
+            }
+            return new OperationName(name, null, null);
+        }
+    }
+
+    /**
+     * parameter annotated with {@link Property} (with {@code name}) or {@link Properties} (with {@code converter})
+     */
+    @RequiredArgsConstructor
+    private static class ParameterProperty {
+        private final int index;
+        @Nullable
+        private final String name;
+        @Nullable
+        private final Class<? extends Properties.Converter> converter;
+
+        private static List<ParameterProperty> parse(@Nonnull Method method) {
+            final List<ParameterProperty> result = new ArrayList<>();
+            final Parameter[] parameters = method.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                final Parameter param = parameters[i];
+                final Property property = param.getAnnotation(Property.class);
+                if (Objects.nonNull(property)) {
+                    result.add(new ParameterProperty(i, Property.PARAM_NAME.equals(property.value()) ? param.getName() : property.value(), null));
+                }
+                final Properties properties = param.getAnnotation(Properties.class);
+                if (Objects.nonNull(properties)) {
+                    result.add(new ParameterProperty(i, null, properties.value()));
+                }
+            }
+            return result.isEmpty() ? Collections.emptyList() : result;
+        }
+    }
+
     private enum ErrorType {
         userError,
         systemError,
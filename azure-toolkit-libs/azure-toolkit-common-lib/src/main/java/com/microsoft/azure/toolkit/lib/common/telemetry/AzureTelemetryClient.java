@@ -12,6 +12,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -81,11 +82,24 @@ public class AzureTelemetryClient {
             return;
         }
 
-        final Map<String, String> properties = mergeProperties(getDefaultProperties(), customProperties, overrideDefaultProperties);
+        // snapshot properties on caller thread as default properties may change afterwards, redaction is left to sender thread
+        final Map<String, String> properties = new HashMap<>(mergeProperties(getDefaultProperties(), customProperties, overrideDefaultProperties));
+        AsyncTelemetrySender.INSTANCE.offer(this, eventName, properties, metrics == null ? null : new HashMap<>(metrics));
+    }
+
+    /**
+     * Wait for queued events to be sent to the telemetry channel, returns immediately if there are none.
+     *
+     * @return whether all queued events are sent before timeout
+     */
+    public boolean flush(@Nonnull final Duration timeout) {
+        return AsyncTelemetrySender.INSTANCE.flush(timeout);
+    }
+
+    void send(@Nonnull final String eventName, @Nonnull final Map<String, String> properties, @Nullable final Map<String, Double> metrics) {
         properties.entrySet().removeIf(stringStringEntry -> StringUtils.isEmpty(stringStringEntry.getValue())); // filter out null values
         anonymizePersonallyIdentifiableInformation(properties);
         client.trackEvent(eventName, properties, metrics);
-        client.flush();
     }
 
     protected Map<String, String> mergeProperties(Map<String, String> defaultProperties,
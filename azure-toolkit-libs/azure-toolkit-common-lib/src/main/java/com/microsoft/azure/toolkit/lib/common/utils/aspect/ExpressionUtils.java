@@ -6,25 +6,40 @@
 package com.microsoft.azure.toolkit.lib.common.utils.aspect;
 
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceUtils;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import groovy.text.SimpleTemplateEngine;
 import groovy.text.Template;
 import lombok.extern.java.Log;
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.runtime.MethodClosure;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Log
 public class ExpressionUtils {
     private static final ImmutableMap<String, Boolean> valueMap = ImmutableMap.of("true", true, "false", false);
     private static final SimpleTemplateEngine engine = new SimpleTemplateEngine();
     private static final String INVALID_TEMPLATE = "error occurs when evaluate template(%s) with bindings(%s)";
+    private static final int MAX_TEMPLATES = 1024;
+    // templates are mostly constants of annotations, but may also come from free-form titles, so the cache is bounded
+    private static final LoadingCache<String, CompiledTemplate> templates = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TEMPLATES)
+            .build(CacheLoader.from(CompiledTemplate::compile));
 
     public static boolean evaluate(@Nonnull final String expression, @Nonnull final MethodInvocation invocation, boolean defaultVal) {
         final String result = interpret(expression, invocation);
@@ -39,11 +54,29 @@ public class ExpressionUtils {
         if (StringUtils.isBlank(template) || !template.contains("$")) { // no groovy expression, just return
             return template;
         }
+        final CompiledTemplate compiled = templates.getUnchecked(template);
+        if (compiled.segments != null) {
+            try {
+                return compiled.renderSimply(invocation);
+            } catch (final Throwable e) { // let groovy render it again, to keep its semantics and error reporting
+                log.log(Level.FINE, String.format("failed to render template(%s) without groovy", template), e);
+            }
+        }
+        return renderWithGroovy(compiled, invocation);
+    }
+
+    /**
+     * render the template with groovy only, i.e. how all templates were rendered before simple ones skip groovy.
+     */
+    static String renderWithGroovy(@Nonnull final String template, @Nonnull final MethodInvocation invocation) {
+        return renderWithGroovy(CompiledTemplate.compile(template), invocation);
+    }
+
+    private static String renderWithGroovy(@Nonnull final CompiledTemplate compiled, @Nonnull final MethodInvocation invocation) {
+        final String template = compiled.template;
         final Map<String, Object> bindings = initBindings(invocation);
-        final String fixed = template.replaceAll("(\\W)this(\\.)", "$1_this_$2"); // resolve `this`
         try {
-            final Template tpl = engine.createTemplate(fixed);
-            return tpl.make(bindings).toString();
+            return compiled.getGroovyTemplate().make(bindings).toString();
         } catch (final Throwable e) { // swallow all exceptions during render
             log.log(Level.SEVERE, String.format(INVALID_TEMPLATE, template, bindings), e);
         }
@@ -66,4 +99,124 @@ public class ExpressionUtils {
     private static void bindPredefinedFunctions(@Nonnull Map<String, Object> bindings) {
         bindings.put("nameFromResourceId", new MethodClosure(ResourceUtils.class, "nameFromResourceId"));
     }
+
+    /**
+     * template parsed once and shared by all invocations: templates made up of only plain text and simple references, i.e.
+     * {@code $param}, {@code ${param}} and chained no-arg method calls like {@code ${this.getId()}}, are rendered without
+     * groovy, others are compiled into groovy templates lazily, which are stateless and thread safe.
+     */
+    private static class CompiledTemplate {
+        private static final Pattern SIMPLE_REFERENCE = Pattern.compile("[A-Za-z_]\\w*(\\.[A-Za-z_]\\w*\\(\\))*");
+        private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_]\\w*");
+        private static final String THIS = "this";
+
+        private final String template;
+        /**
+         * plain text or references (names split by ".", with method names ending with "()"), null if not simple
+         */
+        @Nullable
+        private final List<Object> segments;
+        private volatile Template groovyTemplate;
+
+        private CompiledTemplate(@Nonnull final String template, @Nullable final List<Object> segments) {
+            this.template = template;
+            this.segments = segments;
+        }
+
+        static CompiledTemplate compile(@Nonnull final String template) {
+            return new CompiledTemplate(template, parse(template));
+        }
+
+        @Nullable
+        private static List<Object> parse(@Nonnull final String template) {
+            if (template.contains("<%") || template.contains("\\")) { // scriptlets and escapes are left to groovy
+                return null;
+            }
+            final List<Object> segments = new ArrayList<>();
+            final StringBuilder text = new StringBuilder();
+            int i = 0;
+            while (i < template.length()) {
+                final char c = template.charAt(i);
+                if (c != '$') {
+                    text.append(c);
+                    i++;
+                    continue;
+                }
+                final String reference;
+                if (template.startsWith("{", i + 1)) {
+                    final int end = template.indexOf('}', i + 2);
+                    if (end < 0) {
+                        return null;
+                    }
+                    reference = template.substring(i + 2, end).trim();
+                    // bare `this` refers to the template script itself in groovy
+                    if (!SIMPLE_REFERENCE.matcher(reference).matches() || THIS.equals(reference)) {
+                        return null;
+                    }
+                    i = end + 1;
+                } else {
+                    final Matcher matcher = IDENTIFIER.matcher(template).region(i + 1, template.length());
+                    // `$a.b` is property access in groovy
+                    if (!matcher.lookingAt() || template.startsWith(".", matcher.end()) || THIS.equals(matcher.group())) {
+                        return null;
+                    }
+                    reference = matcher.group();
+                    i = matcher.end();
+                }
+                if (text.length() > 0) {
+                    segments.add(text.toString());
+                    text.setLength(0);
+                }
+                segments.add(reference.split("\\."));
+            }
+            if (text.length() > 0) {
+                segments.add(text.toString());
+            }
+            return segments;
+        }
+
+        String renderSimply(@Nonnull final MethodInvocation invocation) {
+            final StringBuilder result = new StringBuilder();
+            for (final Object segment : Objects.requireNonNull(segments)) {
+                if (segment instanceof String) {
+                    result.append(segment);
+                } else {
+                    result.append(InvokerHelper.toString(resolve((String[]) segment, invocation)));
+                }
+            }
+            return result.toString();
+        }
+
+        @Nullable
+        private static Object resolve(@Nonnull final String[] names, @Nonnull final MethodInvocation invocation) {
+            Object value = getVariable(names[0], invocation);
+            for (int i = 1; i < names.length; i++) {
+                final String method = names[i].substring(0, names[i].length() - 2);
+                value = InvokerHelper.invokeMethod(Objects.requireNonNull(value), method, InvokerHelper.EMPTY_ARGS);
+            }
+            return value;
+        }
+
+        @Nullable
+        private static Object getVariable(@Nonnull final String name, @Nonnull final MethodInvocation invocation) {
+            if (THIS.equals(name)) {
+                return invocation.getInstance();
+            }
+            final String[] paramNames = invocation.getParamNames();
+            for (int i = 0; i < paramNames.length; i++) {
+                if (paramNames[i].equals(name)) {
+                    return invocation.getParamValues()[i];
+                }
+            }
+            throw new IllegalArgumentException(String.format("no such parameter: %s", name));
+        }
+
+        Template getGroovyTemplate() throws IOException, ClassNotFoundException {
+            if (groovyTemplate == null) {
+                final String fixed = template.replaceAll("(\\W)this(\\.)", "$1_this_$2"); // resolve `this`
+                groovyTemplate = engine.createTemplate(fixed);
+            }
+            return groovyTemplate;
+        }
+    }
 }
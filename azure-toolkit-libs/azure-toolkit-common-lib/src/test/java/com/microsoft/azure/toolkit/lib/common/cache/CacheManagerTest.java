@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CacheManagerTest {
+    private static final long TIMEOUT = 10000;
+
+    private final Fixture fixture = new Fixture();
+
+    @Test
+    public void evictBySize() {
+        Assert.assertEquals("a-1", fixture.sized("a"));
+        Assert.assertEquals("b-2", fixture.sized("b"));
+        Assert.assertEquals("b-2", fixture.sized("b"));
+        Assert.assertEquals(2, fixture.loads.get());
+
+        // the least recently used entry is evicted once the cache is full
+        Assert.assertEquals("c-3", fixture.sized("c"));
+        Assert.assertEquals("c-3", fixture.sized("c"));
+        Assert.assertEquals("a-4", fixture.sized("a"));
+        Assert.assertEquals(4, fixture.loads.get());
+        Assert.assertTrue(CacheManager.getStats().get("tests/sized").evictionCount() >= 2);
+    }
+
+    @Test
+    public void refreshAfterWrite() throws Exception {
+        final AzureTaskContext caller = AzureTaskContext.current();
+        Assert.assertEquals("k-1", fixture.refreshed("k"));
+        Thread.sleep(1100);
+
+        // stale value is served while it's being reloaded in background, in a context derived from the caller's
+        Assert.assertEquals("k-1", fixture.refreshed("k"));
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!"k-2".equals(fixture.refreshed("k"))) {
+            Assert.assertTrue("cache is not refreshed", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(2, fixture.loads.get());
+        Assert.assertEquals(2, fixture.contexts.size());
+        Assert.assertNotEquals(Thread.currentThread().getName(), fixture.threads.get(1));
+        Assert.assertSame(caller, fixture.contexts.get(1).getOrigin());
+    }
+
+    @Test
+    public void rejectConflictingPolicies() {
+        Assert.assertEquals("x-1", fixture.conflicting("x"));
+        Assert.assertEquals("x-1", fixture.conflicting("x"));
+
+        // methods declaring other policies than the cache is built with skip the cache instead of sharing it
+        Assert.assertEquals("x-2", fixture.conflictingWithLargerSize("x"));
+        Assert.assertEquals("x-3", fixture.conflictingWithLargerSize("x"));
+        Assert.assertEquals("x-1", fixture.conflicting("x"));
+        Assert.assertEquals(3, fixture.loads.get());
+    }
+
+    public static class Fixture {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final List<AzureTaskContext> contexts = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        @Cacheable(cacheName = "tests/sized", key = "$key", maximumSize = 2)
+        public String sized(String key) {
+            return load(key);
+        }
+
+        @Cacheable(cacheName = "tests/refreshed", key = "$key", refreshAfterWriteSeconds = 1)
+        public String refreshed(String key) {
+            return load(key);
+        }
+
+        @Cacheable(cacheName = "tests/conflicting", key = "$key", maximumSize = 1)
+        public String conflicting(String key) {
+            return load(key);
+        }
+
+        @Cacheable(cacheName = "tests/conflicting", key = "$key", maximumSize = 2)
+        public String conflictingWithLargerSize(String key) {
+            return load(key);
+        }
+
+        private String load(String key) {
+            this.contexts.add(AzureTaskContext.current());
+            this.threads.add(Thread.currentThread().getName());
+            return key + "-" + this.loads.incrementAndGet();
+        }
+    }
+}
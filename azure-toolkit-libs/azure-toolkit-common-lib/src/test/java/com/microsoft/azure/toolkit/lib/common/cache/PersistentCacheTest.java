@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+public class PersistentCacheTest {
+    private static final String NAME = "tests/regions";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        System.setProperty(PersistentCache.DIR_PROPERTY, folder.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(PersistentCache.DIR_PROPERTY);
+    }
+
+    @Test
+    public void expireByTtl() throws Exception {
+        PersistentCache.put(NAME, "short", "eastus", 1, 10);
+        PersistentCache.put(NAME, "long", "westus", 60, 10);
+        Assert.assertEquals(Optional.of("eastus"), PersistentCache.get(NAME, "short", String.class));
+
+        Thread.sleep(1100);
+        Assert.assertEquals(Optional.empty(), PersistentCache.get(NAME, "short", String.class));
+        Assert.assertEquals(Optional.of("westus"), PersistentCache.get(NAME, "long", String.class));
+
+        // expired entries are dropped on next write
+        PersistentCache.put(NAME, "other", "northeurope", 60, 10);
+        final JsonNode entries = new ObjectMapper().readTree(PersistentCache.getFile(NAME)).get("entries");
+        Assert.assertFalse(entries.has("short"));
+        Assert.assertTrue(entries.has("long"));
+    }
+
+    @Test
+    public void dropOldestBeyondMaxSize() {
+        PersistentCache.put(NAME, "a", "1", 60, 2);
+        PersistentCache.put(NAME, "b", "2", 60, 2);
+        PersistentCache.put(NAME, "a", "3", 60, 2); // rewritten entry becomes the newest
+        PersistentCache.put(NAME, "c", "4", 60, 2);
+
+        Assert.assertEquals(Optional.empty(), PersistentCache.get(NAME, "b", String.class));
+        Assert.assertEquals(Optional.of("3"), PersistentCache.get(NAME, "a", String.class));
+        Assert.assertEquals(Optional.of("4"), PersistentCache.get(NAME, "c", String.class));
+    }
+
+    @Test
+    public void writeByMovingTempFile() throws Exception {
+        PersistentCache.put(NAME, "regions", Arrays.asList("eastus", "westus"), 60, 10);
+        PersistentCache.put(NAME, "regions", Arrays.asList("eastus", "westus", "centralus"), 60, 10);
+
+        final List<?> regions = (List<?>) PersistentCache.get(NAME, "regions", List.class).orElse(null);
+        Assert.assertEquals(Arrays.asList("eastus", "westus", "centralus"), regions);
+        // the file is replaced as a whole, and no temp file is left behind
+        Assert.assertArrayEquals(new String[]{PersistentCache.getFile(NAME).getName()}, folder.getRoot().list());
+    }
+
+    @Test
+    public void writeFailure() {
+        // the cache file can't be replaced by a directory
+        Assert.assertTrue(new File(PersistentCache.getFile(NAME), "occupied").mkdirs());
+
+        PersistentCache.put(NAME, "key", "value", 60, 10);
+        Assert.assertEquals(Optional.empty(), PersistentCache.get(NAME, "key", String.class));
+        Assert.assertArrayEquals(new String[]{PersistentCache.getFile(NAME).getName()}, folder.getRoot().list());
+    }
+
+    @Test
+    public void readCorruptedFile() throws Exception {
+        final File file = PersistentCache.getFile(NAME);
+        Assert.assertTrue(file.getParentFile().isDirectory());
+        for (final String content : Arrays.asList(
+            "", // empty
+            "{\"name\":\"" + NAME + "\",\"entries\":{\"key\":{\"expiresAt\":", // partially written
+            "[\"not an object\"]",
+            "{\"name\":\"other\",\"entries\":{\"key\":{\"expiresAt\":" + Long.MAX_VALUE + ",\"value\":1}}}", // hash collision
+            "{\"name\":\"" + NAME + "\",\"entries\":{\"key\":{\"expiresAt\":" + Long.MAX_VALUE + ",\"value\":\"not an integer\"}}}}",
+            "{\"name\":\"" + NAME + "\",\"entries\":\"not an object\"}")) {
+            Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(content, Optional.empty(), PersistentCache.get(NAME, "key", Integer.class));
+        }
+
+        // corrupted file is overwritten by the next write
+        PersistentCache.put(NAME, "key", 1, 60, 10);
+        Assert.assertEquals(Optional.of(1), PersistentCache.get(NAME, "key", Integer.class));
+    }
+}
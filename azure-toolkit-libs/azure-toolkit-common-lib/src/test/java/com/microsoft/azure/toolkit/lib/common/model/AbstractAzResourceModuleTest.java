@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.core.http.HttpResponse;
+import com.azure.core.management.exception.ManagementException;
+import com.azure.resourcemanager.resources.fluentcore.arm.models.Resource;
+import com.google.common.collect.ImmutableMap;
+import com.microsoft.azure.toolkit.lib.account.IAccount;
+import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AbstractAzResourceModuleTest {
+    private static final int THREADS = 8;
+    private static final long TIMEOUT = 10000;
+
+    @Test
+    public void streamLoadedModule() {
+        final TestModule module = new TestModule(Arrays.asList(
+            mockRemote("app-dev", ImmutableMap.of("env", "dev")),
+            mockRemote("app-prod", ImmutableMap.of("env", "prod")),
+            mockRemote("db-prod", null)));
+        Assert.assertEquals(3, module.list().size());
+
+        // all resources are local now, so the filters are applied to the local resources
+        Assert.assertEquals(Collections.singletonList("app-prod"), names(module.stream(AzResourceFilter.builder().tag("env", "prod").build())));
+        Assert.assertEquals(Arrays.asList("app-dev", "app-prod"), names(module.stream(AzResourceFilter.builder().namePrefix("app").build())));
+        Assert.assertEquals(Collections.emptyList(), names(module.stream(AzResourceFilter.builder().resourceGroup("other").build())));
+        Assert.assertEquals(3, module.stream(AzResourceFilter.ALL).count());
+        Assert.assertEquals(1, module.loads.get());
+    }
+
+    @Test
+    public void streamUnloadedModule() {
+        final TestModule module = new TestModule(Arrays.asList(
+            mockRemote("app-dev", ImmutableMap.of("env", "dev")),
+            mockRemote("app-prod", ImmutableMap.of("env", "prod"))));
+
+        Assert.assertEquals(Collections.singletonList("app-prod"), names(module.stream(AzResourceFilter.builder().tag("env", "prod").build())));
+        Assert.assertEquals(1, module.loads.get());
+    }
+
+    @Test
+    public void refreshInBackground() throws Exception {
+        final Resource a = mockRemote("a", null);
+        final Resource b = mockRemote("b", null);
+        final Resource c = mockRemote("c", null);
+        final Resource d = mockRemote("d", null);
+        final TestModule module = new TestModule(Arrays.asList(a, b));
+        final List<TestResource> origin = module.list();
+        final CountDownLatch listing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // reload is blocked after some of the resources are loaded
+        module.lister = () -> Stream.of(a, b, c, d).peek(r -> {
+            if (r == d) {
+                listing.countDown();
+                await(release);
+            }
+        });
+
+        module.refresh();
+        // reload is started by list() in background, which serves the current snapshot meanwhile
+        Assert.assertSame(origin, module.list());
+        await(listing);
+        Assert.assertSame(origin, module.list());
+        final Set<Integer> sizes = ConcurrentHashMap.newKeySet();
+        final Thread reader = new Thread(() -> {
+            final long deadline = System.currentTimeMillis() + TIMEOUT;
+            int size;
+            do {
+                size = module.list().size();
+                sizes.add(size);
+            } while (size != 4 && System.currentTimeMillis() < deadline);
+        });
+        reader.start();
+        release.countDown();
+        reader.join(TIMEOUT);
+
+        // readers see either the previous or the reloaded snapshot, never a partially populated one
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), names(module.list().stream()));
+        Assert.assertTrue(sizes.stream().allMatch(size -> size == 2 || size == 4));
+        // existing instances are kept, as they may be referenced by callers
+        Assert.assertSame(origin.get(0), module.list().get(0));
+        Assert.assertSame(origin.get(1), module.list().get(1));
+    }
+
+    @Test
+    public void refreshWithFailure() throws Exception {
+        final Resource a = mockRemote("a", null);
+        final Resource b = mockRemote("b", null);
+        final Resource c = mockRemote("c", null);
+        final TestModule module = new TestModule(Arrays.asList(a, b));
+        final List<TestResource> origin = module.list();
+        final CountDownLatch listing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        module.lister = () -> {
+            listing.countDown();
+            await(release);
+            throw new AzureToolkitRuntimeException("failed to list resources");
+        };
+
+        module.refresh();
+        Assert.assertSame(origin, module.list());
+        await(listing);
+        Assert.assertSame(origin, module.list());
+        module.lister = () -> Stream.of(a, b, c);
+        release.countDown();
+
+        // previous snapshot is kept after the reload fails, until a later refresh succeeds
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        List<TestResource> resources;
+        while ((resources = module.list()).size() != 3) {
+            Assert.assertSame(origin, resources);
+            Assert.assertTrue("resources are not reloaded", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+            module.refresh();
+        }
+        Assert.assertTrue(module.loads.get() >= 3);
+        Assert.assertSame(origin.get(0), resources.get(0));
+    }
+
+    @Test
+    public void getConcurrently() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Resource remote = mockRemote("app", null);
+        final TestModule module = new TestModule(Collections.emptyList());
+        module.loader = name -> {
+            await(release);
+            return remote;
+        };
+
+        final Object[] results = getConcurrently(module, "app", release);
+        Assert.assertEquals(1, module.remoteLoads.get());
+        Assert.assertNotNull(results[0]);
+        Assert.assertEquals(remote, ((TestResource) results[0]).getRemote());
+        Arrays.stream(results).forEach(result -> Assert.assertSame(results[0], result));
+    }
+
+    @Test
+    public void getConcurrentlyWithFailure() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpResponse response = mock(HttpResponse.class);
+        when(response.getStatusCode()).thenReturn(500);
+        final ManagementException error = new ManagementException("internal error", response);
+        final TestModule module = new TestModule(Collections.emptyList());
+        module.loader = name -> {
+            await(release);
+            throw error;
+        };
+
+        final Object[] results = getConcurrently(module, "app", release);
+        Assert.assertEquals(1, module.remoteLoads.get());
+        Arrays.stream(results).forEach(result -> Assert.assertSame(error, result));
+
+        // failed load is not cached, the next caller loads again
+        final Resource remote = mockRemote("app", null);
+        module.loader = name -> remote;
+        Assert.assertEquals(remote, module.get("app", "rg").getRemote());
+        Assert.assertEquals(2, module.remoteLoads.get());
+    }
+
+    /**
+     * call {@link TestModule#get} from {@link #THREADS} threads, {@code release} the (blocked) load only after all other callers are waiting for it.
+     *
+     * @return resource got or exception thrown by each thread
+     */
+    private static Object[] getConcurrently(final TestModule module, final String name, final CountDownLatch release) throws InterruptedException {
+        final Object[] results = new Object[THREADS];
+        final List<Thread> threads = IntStream.range(0, THREADS).mapToObj(i -> new Thread(() -> {
+            try {
+                results[i] = module.get(name, "rg");
+            } catch (final Throwable t) {
+                results[i] = t;
+            }
+        })).collect(Collectors.toList());
+        threads.forEach(Thread::start);
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (threads.stream().filter(AbstractAzResourceModuleTest::isAwaitingLoad).count() < THREADS - 1) {
+            Assert.assertTrue("callers are not waiting for the in-flight load", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        release.countDown();
+        for (final Thread thread : threads) {
+            thread.join(TIMEOUT);
+        }
+        return results;
+    }
+
+    private static boolean isAwaitingLoad(final Thread thread) {
+        return thread.getState() == Thread.State.WAITING && Arrays.stream(thread.getStackTrace())
+            .anyMatch(e -> InflightLoad.class.getName().equals(e.getClassName()) && "await".equals(e.getMethodName()));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            Assert.assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        } catch (final InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> names(final Stream<TestResource> resources) {
+        return resources.map(AbstractAzResource::getName).collect(Collectors.toList());
+    }
+
+    private static Resource mockRemote(final String name, final Map<String, String> tags) {
+        final Resource remote = mock(Resource.class);
+        when(remote.name()).thenReturn(name);
+        when(remote.tags()).thenReturn(tags);
+        return remote;
+    }
+
+    private static class TestModule extends AbstractAzResourceModule<TestResource, AzResource.None, Resource> {
+        private volatile Supplier<Stream<Resource>> lister;
+        private final AtomicInteger loads = new AtomicInteger();
+        private final AtomicInteger remoteLoads = new AtomicInteger();
+        private volatile Function<String, Resource> loader = name -> null;
+
+        TestModule(final List<Resource> remotes) {
+            super("tests", AzResource.NONE);
+            this.lister = remotes::stream;
+        }
+
+        @Nonnull
+        @Override
+        protected Stream<Resource> loadResourcesFromAzure() {
+            this.loads.incrementAndGet();
+            return this.lister.get();
+        }
+
+        @Nullable
+        @Override
+        protected Resource loadResourceFromAzure(@Nonnull String name, String resourceGroup) {
+            this.remoteLoads.incrementAndGet();
+            return this.loader.apply(name);
+        }
+
+        @Override
+        protected TestResource newResource(@Nonnull Resource remote) {
+            return new TestResource(remote, this);
+        }
+
+        @Override
+        public String getResourceTypeName() {
+            return "Test";
+        }
+    }
+
+    private static class TestResource extends AbstractAzResource<TestResource, AzResource.None, Resource> {
+        TestResource(@Nonnull Resource remote, @Nonnull TestModule module) {
+            super(remote.name(), "rg", module);
+            // set the remote directly instead of by setRemote(), which refreshes the status in background
+            this.remoteRef.set(remote);
+            this.syncTimeRef.set(System.currentTimeMillis());
+        }
+
+        @Override
+        public List<AzResourceModule<?, TestResource, ?>> getSubModules() {
+            return Collections.emptyList();
+        }
+
+        @Nonnull
+        @Override
+        public String loadStatus(@Nonnull Resource remote) {
+            return Status.UNKNOWN;
+        }
+    }
+
+    /**
+     * registered in META-INF/services, as modules make sure that the user is signed in before listing resources.
+     */
+    public static class TestAccount implements IAzureAccount {
+        @Override
+        public IAccount account() {
+            return null;
+        }
+
+        @Override
+        public List<Region> listRegions(String subscriptionId) {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.operation;
+
+import com.microsoft.azure.toolkit.lib.common.operation.TimingReport.Phase;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TimingReportTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void reportParallelGoalsSeparately() throws Exception {
+        // both phases are timed while both goals are running
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final Future<TimingReport> login = executor.submit(goal("login", () -> {
+            try (TimingReport.Timer ignored = TimingReport.time(Phase.LOGIN)) {
+                barrier.await(10, TimeUnit.SECONDS);
+            }
+            return null;
+        }));
+        final Future<TimingReport> upload = executor.submit(goal("upload", () -> {
+            try (TimingReport.Timer ignored = TimingReport.time(Phase.UPLOAD)) {
+                barrier.await(10, TimeUnit.SECONDS);
+            }
+            return null;
+        }));
+
+        Assert.assertEquals(Collections.singleton(Phase.LOGIN), login.get().getPhases().keySet());
+        Assert.assertEquals(Collections.singleton(Phase.UPLOAD), upload.get().getPhases().keySet());
+    }
+
+    @Test
+    public void reportPhasesOfDerivedContexts() throws Exception {
+        final ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            final TimingReport report = goal("deploy", () -> {
+                worker.submit(AzureTaskContext.wrap(() -> TimingReport.time(Phase.PACKAGING).close())).get();
+                // not derived from the context of the goal
+                worker.submit(() -> TimingReport.time(Phase.POLLING).close()).get();
+                return null;
+            }).call();
+
+            Assert.assertEquals(EnumSet.of(Phase.PACKAGING), report.getPhases().keySet());
+        } finally {
+            worker.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timeWithoutReport() {
+        TimingReport.time(Phase.LOGIN).close();
+    }
+
+    /**
+     * run {@code body} in a context of its own as a goal does.
+     */
+    private static Callable<TimingReport> goal(final String name, final Callable<Void> body) {
+        return () -> AzureTaskContext.wrap(() -> {
+            final TimingReport report = TimingReport.start(name);
+            try {
+                body.call();
+            } finally {
+                report.finish();
+            }
+            return report;
+        }).call();
+    }
+}
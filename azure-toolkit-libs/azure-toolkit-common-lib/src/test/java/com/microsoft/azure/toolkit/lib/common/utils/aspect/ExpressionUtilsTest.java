@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils.aspect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExpressionUtilsTest {
+    private static final String RESOURCE_ID = "/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Web/sites/app";
+
+    private final MethodInvocation invocation = MethodInvocation.builder()
+            .instance(new Resource("child", new Resource("parent", null)))
+            .paramNames(new String[]{"name", "id", "nothing"})
+            .paramValues(new Object[]{"app", RESOURCE_ID, null})
+            .build();
+
+    @Test
+    public void renderSimpleReferences() {
+        assertSameAsGroovy("deploy $name", "deploy app");
+        assertSameAsGroovy("deploy ${name} to ${ id }", "deploy app to " + RESOURCE_ID);
+        assertSameAsGroovy("value of nothing is $nothing", "value of nothing is null");
+        assertSameAsGroovy("$name-${name}.suffix", "app-app.suffix");
+    }
+
+    @Test
+    public void renderNestedReferences() {
+        assertSameAsGroovy("resource ${this.getName()}", "resource child");
+        assertSameAsGroovy("parent of ${this.getName()} is ${this.getParent().getName()}", "parent of child is parent");
+        assertSameAsGroovy("${nameFromResourceId(id)}", "app");
+        assertSameAsGroovy("${name.toUpperCase()}", "APP");
+    }
+
+    @Test
+    public void renderMissingReferences() {
+        // both fail and leave the template as is
+        assertSameAsGroovy("deploy $missing", "deploy $missing");
+        assertSameAsGroovy("deploy ${missing}", "deploy ${missing}");
+        assertSameAsGroovy("${this.getParent().getParent().getName()}", "${this.getParent().getParent().getName()}");
+    }
+
+    @Test
+    public void renderEscapedReferences() {
+        assertSameAsGroovy("deploy \\$name", "deploy $name");
+        assertSameAsGroovy("deploy \\${name} as ${name}", "deploy ${name} as app");
+    }
+
+    @Test
+    public void renderRepeatedly() {
+        // the second render reuses the cached template
+        Assert.assertEquals(ExpressionUtils.render("again ${name}", invocation), ExpressionUtils.render("again ${name}", invocation));
+    }
+
+    private void assertSameAsGroovy(final String template, final String expected) {
+        Assert.assertEquals(expected, ExpressionUtils.renderWithGroovy(template, invocation));
+        Assert.assertEquals(expected, ExpressionUtils.render(template, invocation));
+    }
+
+    public static class Resource {
+        private final String name;
+        private final Resource parent;
+
+        Resource(final String name, final Resource parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Resource getParent() {
+            return parent;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.azure.resourcemanager.appplatform.models.DeploymentResourceStatus;
 import com.azure.resourcemanager.appplatform.models.DeploymentSettings;
 import com.azure.resourcemanager.appplatform.models.SpringAppDeployment;
 import com.google.common.base.Charsets;
+import com.microsoft.azure.toolkit.lib.common.http.HttpTransport;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
@@ -88,7 +89,7 @@ public class SpringCloudDeployment extends AbstractAzResource<SpringCloudDeploym
 
     @SneakyThrows
     public Flux<String> streamLogs(final String instance, int sinceSeconds, int tailLines, int limitBytes, boolean follow) {
-        final HttpClient client = HttpClient.create().keepAlive(true);
+        final HttpClient client = HttpTransport.getNettyClient(); // shares connections with other clients
         final URIBuilder endpoint = new URIBuilder(this.getParent().getLogStreamingEndpoint(instance));
         endpoint.addParameter("follow", String.valueOf(follow));
         if (sinceSeconds > 0) {
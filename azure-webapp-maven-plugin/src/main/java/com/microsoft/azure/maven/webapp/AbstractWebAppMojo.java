@@ -67,6 +67,16 @@ public abstract class AbstractWebAppMojo extends AbstractAppServiceMojo {
     @Parameter(property = "webapp.stopAppDuringDeployment", defaultValue = "false")
     protected boolean stopAppDuringDeployment;
 
+    /**
+     * Boolean flag to only deploy artifacts which have changed since last deployment,
+     * by comparing artifact digests with the deployment manifest stored in the web app.
+     * @since 2.4.0
+     */
+    @Getter
+    @JsonProperty
+    @Parameter(property = "webapp.incrementalDeploy", defaultValue = "false")
+    protected boolean incrementalDeploy;
+
     /**
      * Boolean flag to skip the execution of maven plugin for azure webapp
      * @since 0.1.4
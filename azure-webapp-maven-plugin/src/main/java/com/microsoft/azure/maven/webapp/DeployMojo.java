@@ -134,7 +134,9 @@ public class DeployMojo extends AbstractWebAppMojo {
     }
 
     private void deploy(IWebAppBase<?> target, List<WebAppArtifact> artifacts) {
-        new DeployWebAppTask(target, artifacts, isStopAppDuringDeployment()).execute();
+        final DeployWebAppTask task = new DeployWebAppTask(target, artifacts, isStopAppDuringDeployment());
+        task.setIncrementalDeploy(isIncrementalDeploy());
+        task.execute();
     }
 
     private void deployExternalResources(final IWebAppBase<?> target, final List<DeploymentResource> resources) {